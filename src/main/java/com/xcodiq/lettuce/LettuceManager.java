@@ -25,6 +25,10 @@
 package com.xcodiq.lettuce;
 
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands;
 import lombok.Getter;
@@ -32,6 +36,11 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * The lettuce manager is responsible for managing the redis connection
  *
@@ -44,7 +53,13 @@ public final class LettuceManager {
 
 	private static final Logger LOG = LoggerFactory.getLogger(LettuceManager.class);
 
-	private final RedisPubSubAsyncCommands<String, String> asyncPublisher;
+	/**
+	 * Channels are strings, messages are raw bytes so binary payloads never have to be encoded as text
+	 */
+	public static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+	private final RedisPubSubAsyncCommands<String, byte[]> asyncPublisher;
+	private final Map<Integer, RedisPubSubAsyncCommands<String, byte[]>> lanePublishers = new ConcurrentHashMap<>();
 	private final RedisClient redisClient;
 
 	/**
@@ -58,8 +73,7 @@ public final class LettuceManager {
 		this.redisClient = redisClient;
 
 		// Create a new async pubsub connection
-		final StatefulRedisPubSubConnection<String, String> connection = this.redisClient.connectPubSub();
-		this.asyncPublisher = connection.async();
+		this.asyncPublisher = this.connectPubSub().async();
 
 		LOG.debug("Successfully connected to the redis database.");
 	}
@@ -82,6 +96,81 @@ public final class LettuceManager {
 	 * @param message the message to publish
 	 */
 	public void publish(String route, String message) {
-		this.asyncPublisher.publish(route, message);
+		this.publish(route, message.getBytes(StandardCharsets.UTF_8), 0);
+	}
+
+	/**
+	 * Publish a message to a specific route on the redis, using the connection of a lane
+	 *
+	 * @param route   the route to publish to
+	 * @param message the message to publish
+	 * @param lane    the lane to publish on, {@code 0} being the default connection
+	 */
+	public void publish(String route, String message, int lane) {
+		this.publish(route, message.getBytes(StandardCharsets.UTF_8), lane);
+	}
+
+	/**
+	 * Publish a raw message to a specific route on the redis, using the connection of a lane
+	 *
+	 * @param route   the route to publish to
+	 * @param message the message to publish
+	 * @param lane    the lane to publish on, {@code 0} being the default connection
+	 */
+	public void publish(String route, byte[] message, int lane) {
+		this.getPublisher(lane).publish(route, message);
+	}
+
+	/**
+	 * Store a value under a key with a time to live, using the connection of a lane. Messages published on
+	 * the same lane afterwards are sent after the value has been stored
+	 *
+	 * @param key       the key to store the value under
+	 * @param value     the value to store
+	 * @param ttlMillis the time to live of the key in milliseconds
+	 * @param lane      the lane to store the value on, {@code 0} being the default connection
+	 */
+	public void store(String key, byte[] value, long ttlMillis, int lane) {
+		this.getPublisher(lane).set(key, value, SetArgs.Builder.px(Math.max(1, ttlMillis)));
+	}
+
+	/**
+	 * Fetch the value stored under a key
+	 *
+	 * @param key the key to fetch the value of
+	 * @return a stage completing with the value, or with {@code null} if there is none
+	 */
+	public CompletionStage<byte[]> fetch(String key) {
+		return this.asyncPublisher.get(key);
+	}
+
+	/**
+	 * Open a new pub sub connection with the codec of this lettuce manager
+	 *
+	 * @return the new pub sub connection
+	 */
+	public StatefulRedisPubSubConnection<String, byte[]> connectPubSub() {
+		return this.redisClient.connectPubSub(CODEC);
+	}
+
+	/**
+	 * Get the publisher of a lane, every lane other than the default one has its own connection, so messages
+	 * on one lane never wait behind the messages of another lane in the same output buffer
+	 *
+	 * @param lane the lane to get the publisher of, {@code 0} being the default connection
+	 * @return the publisher of the lane
+	 */
+	public RedisPubSubAsyncCommands<String, byte[]> getPublisher(int lane) {
+		if (lane == 0) return this.asyncPublisher;
+		return this.lanePublishers.computeIfAbsent(lane, key -> this.connectPubSub().async());
+	}
+
+	/**
+	 * Close all connections of this lettuce manager and shut down its redis client
+	 */
+	public void shutdown() {
+		this.asyncPublisher.getStatefulConnection().close();
+		this.lanePublishers.values().forEach(publisher -> publisher.getStatefulConnection().close());
+		this.redisClient.shutdown();
 	}
 }
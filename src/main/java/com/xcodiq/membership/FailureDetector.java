@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.membership;
+
+/**
+ * A phi accrual failure detector. Instead of a fixed timeout it learns the distribution of the heartbeat
+ * inter-arrival times of a member, and expresses how late the next heartbeat is as a suspicion level (phi).
+ * A phi of 1 means a 10% chance the member is still alive, a phi of 2 a 1% chance, and so on.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class FailureDetector {
+
+	private static final int WINDOW_SIZE = 100;
+
+	private final long[] intervals = new long[WINDOW_SIZE];
+	private final long minStdDeviation; // keeps a very regular member from being suspected after a small hiccup
+	private final long acceptablePause; // the pause that is always accepted, e.g. a single missed heartbeat
+
+	private int count, index;
+	private long lastArrival;
+
+	/**
+	 * Constructs a new failure detector
+	 *
+	 * @param expectedInterval the expected heartbeat interval in nanoseconds
+	 * @param now              the time of the first heartbeat in nanoseconds
+	 */
+	FailureDetector(long expectedInterval, long now) {
+		this.minStdDeviation = expectedInterval / 4;
+		this.acceptablePause = expectedInterval;
+		this.lastArrival = now;
+
+		// Start with the expected interval, so the first heartbeats are judged sensibly
+		this.intervals[0] = expectedInterval;
+		this.count = this.index = 1;
+	}
+
+	/**
+	 * Record the arrival of a heartbeat
+	 *
+	 * @param now the arrival time in nanoseconds
+	 */
+	synchronized void heartbeat(long now) {
+		this.intervals[this.index] = now - this.lastArrival;
+		this.index = (this.index + 1) % WINDOW_SIZE;
+		this.count = Math.min(this.count + 1, WINDOW_SIZE);
+		this.lastArrival = now;
+	}
+
+	/**
+	 * Get the suspicion level of the member
+	 *
+	 * @param now the current time in nanoseconds
+	 * @return the phi value, higher meaning the member is more likely to have failed
+	 */
+	synchronized double phi(long now) {
+		double mean = 0;
+		for (int i = 0; i < this.count; i++) mean += this.intervals[i];
+		mean /= this.count;
+
+		double variance = 0;
+		for (int i = 0; i < this.count; i++) variance += Math.pow(this.intervals[i] - mean, 2);
+		final double stdDeviation = Math.max(Math.sqrt(variance / this.count), this.minStdDeviation);
+
+		// Logistic approximation of the cumulative normal distribution
+		final double y = ((now - this.lastArrival) - (mean + this.acceptablePause)) / stdDeviation;
+		final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+		return y > 0 ? -Math.log10(e / (1 + e)) : -Math.log10(1 - 1 / (1 + e));
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.membership;
+
+import com.xcodiq.record.routing.NodeLoad;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The message a member publishes on the membership channel every heartbeat interval
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+@Getter
+final class Heartbeat {
+
+	private final String nodeId;
+	private final Set<String> recordTypes; // the class names of the records the member has bound a handler to
+	private final Map<String, String> capabilities;
+	private final boolean leaving; // whether the member is shutting down
+
+	/* the advertised load, see NodeLoad */
+	private final int queued, inFlight;
+	private final long latency;
+
+	Heartbeat(String nodeId, Set<String> recordTypes, Map<String, String> capabilities, boolean leaving, NodeLoad load) {
+		this.nodeId = nodeId;
+		this.recordTypes = recordTypes;
+		this.capabilities = capabilities;
+		this.leaving = leaving;
+		this.queued = load.getQueued();
+		this.inFlight = load.getInFlight();
+		this.latency = load.getLatency();
+	}
+
+	NodeLoad getLoad() {
+		return new NodeLoad(this.queued, this.inFlight, this.latency);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.membership;
+
+import com.xcodiq.record.routing.NodeLoad;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A member is a node of the membership, as last seen in its heartbeats
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+@Getter
+public final class Member {
+
+	private final String nodeId;
+
+	@Getter(AccessLevel.PACKAGE)
+	private final FailureDetector failureDetector; // null for the local member
+
+	@Setter(AccessLevel.PACKAGE)
+	private volatile Set<String> recordTypes; // the class names of the records the member has bound a handler to
+	@Setter(AccessLevel.PACKAGE)
+	private volatile Map<String, String> capabilities;
+	@Setter(AccessLevel.PACKAGE)
+	private volatile MemberState state = MemberState.ALIVE;
+	@Setter(AccessLevel.PACKAGE)
+	private volatile NodeLoad load = NodeLoad.IDLE; // the load the member advertised in its last heartbeat
+
+	Member(String nodeId, FailureDetector failureDetector) {
+		this.nodeId = nodeId;
+		this.failureDetector = failureDetector;
+	}
+
+	/**
+	 * Check if the member has bound a handler to a record type
+	 *
+	 * @param recordClassName the class name of the record type
+	 * @return {@code true} if the member handles the record type, {@code false} otherwise
+	 */
+	public boolean handles(String recordClassName) {
+		return this.recordTypes.contains(recordClassName);
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.membership;
+
+import com.xcodiq.lettuce.LettuceManager;
+import com.xcodiq.packet.serialization.PacketCodec;
+import com.xcodiq.pubsub.BinaryMessageListener;
+import com.xcodiq.record.routing.MembershipView;
+import com.xcodiq.record.routing.NodeLoad;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The membership keeps track of the nodes sharing a record prefix. Every member publishes a heartbeat on the
+ * membership channel, carrying the record types it handles and its capabilities, and every member judges the
+ * heartbeats of the others with a phi accrual failure detector: a member whose heartbeats are late becomes a
+ * suspect, and once they are late beyond doubt it is declared dead.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class Membership implements MembershipView {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Membership.class);
+
+	private static final double SUSPECT_THRESHOLD = 3; // phi at which a member becomes a suspect
+	private static final double DEAD_THRESHOLD = 8; // phi at which a member is declared dead
+
+	private final Map<String, Member> members = new ConcurrentHashMap<>();
+	private final Map<String, String> capabilities = new ConcurrentHashMap<>();
+
+	private final Member localMember;
+	private final String channel;
+	private final LettuceManager lettuceManager;
+	private final PacketCodec codec;
+	private final ScheduledExecutorService scheduler;
+	private final long heartbeatInterval; // in nanoseconds
+	private final Supplier<Set<String>> recordTypes;
+	private final Supplier<NodeLoad> load;
+	private final Consumer<String> deathListener;
+
+	private StatefulRedisPubSubConnection<String, byte[]> connection;
+	private ScheduledFuture<?> heartbeatFuture;
+
+	/**
+	 * Constructs a new membership, it does nothing until it has been started
+	 *
+	 * @param nodeId            the node id of this instance
+	 * @param recordPrefix      the record prefix shared by the members
+	 * @param lettuceManager    the lettuce manager to publish and subscribe with
+	 * @param codec             the codec to (de)serialize heartbeats with
+	 * @param scheduler         the scheduler to publish heartbeats and detect failures on
+	 * @param heartbeatInterval the interval between two heartbeats
+	 * @param timeUnit          the time unit of the heartbeat interval
+	 * @param recordTypes       supplies the class names of the records this instance has bound a handler to
+	 * @param load              supplies the load this instance advertises
+	 * @param deathListener     called with the node id of every member that is declared dead
+	 */
+	public Membership(String nodeId, String recordPrefix, LettuceManager lettuceManager, PacketCodec codec,
+	                  ScheduledExecutorService scheduler, long heartbeatInterval, TimeUnit timeUnit,
+	                  Supplier<Set<String>> recordTypes, Supplier<NodeLoad> load, Consumer<String> deathListener) {
+		this.localMember = new Member(nodeId, null);
+		this.localMember.setCapabilities(this.capabilities);
+		this.channel = "membership." + recordPrefix;
+		this.lettuceManager = lettuceManager;
+		this.codec = codec;
+		this.scheduler = scheduler;
+		this.heartbeatInterval = timeUnit.toNanos(heartbeatInterval);
+		this.recordTypes = recordTypes;
+		this.load = load;
+		this.deathListener = deathListener;
+	}
+
+	/**
+	 * Start publishing heartbeats and listening to the heartbeats of the other members
+	 */
+	public synchronized void start() {
+		if (this.connection != null) return;
+
+		this.connection = this.lettuceManager.connectPubSub();
+		this.connection.addListener(new BinaryMessageListener() {
+			@Override
+			public void message(String channel, byte[] message) {
+				receive(new String(message, StandardCharsets.UTF_8));
+			}
+
+			@Override
+			public void message(String pattern, String channel, byte[] message) {
+				// the membership channel is not a pattern
+			}
+		});
+		this.connection.async().subscribe(this.channel);
+
+		this.heartbeatFuture = this.scheduler.scheduleAtFixedRate(this::tick, 0, this.heartbeatInterval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stop the membership, the other members are told this instance is leaving so they do not have to detect it
+	 */
+	public synchronized void shutdown() {
+		if (this.connection == null) return;
+
+		this.heartbeatFuture.cancel(false);
+		this.publish(true);
+		this.connection.close();
+		this.connection = null;
+	}
+
+	/**
+	 * Publish a heartbeat, and judge the heartbeats of the other members
+	 */
+	private void tick() {
+		try {
+			this.publish(false);
+
+			final long now = System.nanoTime();
+			for (Member member : this.members.values()) {
+				final double phi = member.getFailureDetector().phi(now);
+				if (phi >= DEAD_THRESHOLD) this.declareDead(member);
+				else member.setState(phi >= SUSPECT_THRESHOLD ? MemberState.SUSPECT : MemberState.ALIVE);
+			}
+		} catch (Exception exception) {
+			// Never let an exception cancel the heartbeats
+			LOG.error("An error occurred while publishing a heartbeat", exception);
+		}
+	}
+
+	private void publish(boolean leaving) {
+		final Heartbeat heartbeat = new Heartbeat(this.localMember.getNodeId(), this.recordTypes.get(),
+				Map.copyOf(this.capabilities), leaving, this.load.get());
+		this.lettuceManager.publish(this.channel, this.codec.getGson().toJson(heartbeat));
+	}
+
+	/**
+	 * Receive a heartbeat of a member
+	 *
+	 * @param message the serialized heartbeat
+	 */
+	private void receive(String message) {
+		final Heartbeat heartbeat = this.codec.getGson().fromJson(message, Heartbeat.class);
+		if (heartbeat == null || heartbeat.getNodeId() == null || heartbeat.getNodeId().equals(this.localMember.getNodeId())) return;
+
+		// A leaving member is dead right away, its pending records do not have to wait for the failure detector
+		if (heartbeat.isLeaving()) {
+			final Member member = this.members.get(heartbeat.getNodeId());
+			if (member != null) this.declareDead(member);
+			return;
+		}
+
+		final long now = System.nanoTime();
+		final Member member = this.members.computeIfAbsent(heartbeat.getNodeId(),
+				nodeId -> new Member(nodeId, new FailureDetector(this.heartbeatInterval, now)));
+		if (member.getRecordTypes() != null) member.getFailureDetector().heartbeat(now);
+
+		member.setRecordTypes(heartbeat.getRecordTypes() == null ? Set.of() : Set.copyOf(heartbeat.getRecordTypes()));
+		member.setCapabilities(heartbeat.getCapabilities() == null ? Map.of() : Map.copyOf(heartbeat.getCapabilities()));
+		member.setLoad(heartbeat.getLoad());
+	}
+
+	private void declareDead(Member member) {
+		if (!this.members.remove(member.getNodeId(), member)) return;
+
+		member.setState(MemberState.DEAD);
+		LOG.info("Member '{}' has been declared dead", member.getNodeId());
+
+		this.deathListener.accept(member.getNodeId());
+	}
+
+	/**
+	 * Get the ids of the members that handle a record type, suspects included so a short hiccup does not move any keys
+	 *
+	 * @param recordClassName the class name of the record type
+	 * @return the node ids of the members handling the record type
+	 */
+	@Override
+	public @NotNull Collection<String> getNodes(@NotNull String recordClassName) {
+		final List<String> nodes = new ArrayList<>();
+		if (this.recordTypes.get().contains(recordClassName)) nodes.add(this.localMember.getNodeId());
+
+		for (Member member : this.members.values()) {
+			if (member.getRecordTypes() != null && member.handles(recordClassName)) nodes.add(member.getNodeId());
+		}
+		return nodes;
+	}
+
+	/**
+	 * Get the load a member advertised in its last heartbeat, the load of this instance is always up to date
+	 *
+	 * @param nodeId the node id of the member
+	 * @return the advertised load of the member, {@link NodeLoad#IDLE} if it is unknown
+	 */
+	@Override
+	public @NotNull NodeLoad getLoad(@NotNull String nodeId) {
+		if (nodeId.equals(this.localMember.getNodeId())) return this.load.get();
+
+		final Member member = this.members.get(nodeId);
+		return member == null ? NodeLoad.IDLE : member.getLoad();
+	}
+
+	/**
+	 * Get all members that are not dead, including the local member
+	 *
+	 * @return the live members
+	 */
+	public @NotNull Collection<Member> getMembers() {
+		this.localMember.setRecordTypes(this.recordTypes.get());
+		this.localMember.setLoad(this.load.get());
+
+		final List<Member> members = new ArrayList<>(this.members.values());
+		members.add(this.localMember);
+		return members;
+	}
+
+	/**
+	 * Get a live member by its node id
+	 *
+	 * @param nodeId the node id of the member
+	 * @return the member, or {@code null} if the member is unknown or dead
+	 */
+	public @Nullable Member getMember(@NotNull String nodeId) {
+		if (nodeId.equals(this.localMember.getNodeId())) {
+			this.localMember.setRecordTypes(this.recordTypes.get());
+			this.localMember.setLoad(this.load.get());
+			return this.localMember;
+		}
+		return this.members.get(nodeId);
+	}
+
+	/**
+	 * Check if a node is a live member
+	 *
+	 * @param nodeId the node id to check
+	 * @return {@code true} if the node is a live member, {@code false} otherwise
+	 */
+	public boolean isAlive(@NotNull String nodeId) {
+		return nodeId.equals(this.localMember.getNodeId()) || this.members.containsKey(nodeId);
+	}
+
+	/**
+	 * Set a capability of this instance, the other members see it from the next heartbeat on
+	 *
+	 * @param key   the key of the capability
+	 * @param value the value of the capability, {@code null} to remove it
+	 */
+	public void setCapability(@NotNull String key, @Nullable String value) {
+		if (value == null) this.capabilities.remove(key);
+		else this.capabilities.put(key, value);
+	}
+}
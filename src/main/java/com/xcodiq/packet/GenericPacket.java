@@ -24,20 +24,70 @@
 
 package com.xcodiq.packet;
 
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
 /**
+ * A packet carrying a single payload. When lazy payloads are enabled using
+ * {@link com.xcodiq.rpc.Options#setLazyPayloads(boolean)}, a received payload is kept encoded until
+ * {@link #getPayload()} is first called, so packets that are only routed, forwarded or counted are never decoded.
+ *
  * @author xCodiq - Elmar (Cody) Lynn
  * @wesbite https://xcodiq.com
  * @since 1.0
  */
 public class GenericPacket<T> extends RedisPacket {
 
-	protected final T payload;
+	protected T payload; // null while the payload is still encoded, use getPayload() to access it
+
+	private transient volatile String encodedPayload; // the json of a received payload, until it is decoded
+	private transient Function<String, T> payloadDecoder;
 
 	public GenericPacket(T payload) {
 		this.payload = payload;
 	}
 
+	/**
+	 * Get the payload, decoding it on the first call if it is still encoded
+	 *
+	 * @return the payload
+	 */
 	public T getPayload() {
+		if (this.encodedPayload != null) {
+			synchronized (this) {
+				final String encodedPayload = this.encodedPayload;
+				if (encodedPayload != null) {
+					this.payload = this.payloadDecoder.apply(encodedPayload);
+					this.payloadDecoder = null;
+					this.encodedPayload = null;
+				}
+			}
+		}
 		return payload;
 	}
+
+	/**
+	 * Get the json of the payload, as long as it has not been decoded
+	 *
+	 * @return the json of the payload, or {@code null} if the payload has been decoded or was never encoded
+	 */
+	public @Nullable String getEncodedPayload() {
+		return this.encodedPayload;
+	}
+
+	/**
+	 * Keep the payload of a received packet encoded until it is first used
+	 *
+	 * @param encodedPayload the json of the payload, or {@code null} to clear a previously set encoded payload
+	 * @param payloadDecoder the function decoding the json of the payload
+	 * @apiNote This is called by the packet codec when the packet is deserialized
+	 */
+	@ApiStatus.Internal
+	public synchronized void setEncodedPayload(@Nullable String encodedPayload, @Nullable Function<String, T> payloadDecoder) {
+		if (encodedPayload != null) this.payload = null;
+		this.payloadDecoder = payloadDecoder;
+		this.encodedPayload = encodedPayload;
+	}
 }
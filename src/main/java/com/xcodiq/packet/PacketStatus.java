@@ -325,6 +325,24 @@ public enum PacketStatus {
 		this.message = message;
 	}
 
+	/**
+	 * Gets status code.
+	 *
+	 * @return the status code
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Checks if the status is a client (4xx) or server (5xx) error.
+	 *
+	 * @return {@code true} if the status is an error, {@code false} otherwise
+	 */
+	public boolean isError() {
+		return statusCode >= 400;
+	}
+
 	/**
 	 * Gets message.
 	 *
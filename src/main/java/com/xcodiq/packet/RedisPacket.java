@@ -24,11 +24,15 @@
 
 package com.xcodiq.packet;
 
+import com.xcodiq.record.CancellationToken;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author xCodiq - Elmar (Cody) Lynn
@@ -40,15 +44,19 @@ import java.util.UUID;
 public class RedisPacket implements Packet {
 
 	private final String packetClass;
-	private final UUID packetId;
+	@Setter(AccessLevel.NONE)
+	private UUID packetId;
 
 	private String channel;
 	private UUID recordId;
 	private Instant createdAt;
+	private Instant deadline; // the time the sender stops waiting for a reply, null if unknown
 
 	private PacketStatus packetStatus;
 	private boolean isReplyPacket = false;
 
+	private transient CancellationToken cancellationToken; // set on received packets, cancelled when the sender gives up
+
 	public RedisPacket(final PacketStatus packetStatus) {
 		this.packetClass = this.getClass().getName();
 		this.packetId = UUID.randomUUID();
@@ -60,6 +68,36 @@ public class RedisPacket implements Packet {
 		this(PacketStatus.OK);
 	}
 
+	/**
+	 * Give the packet a new packet id, so it is handled again by receivers that already handled it
+	 *
+	 * @apiNote This is used when the same packet is sent more than once, e.g. when a record is hedged
+	 */
+	public void renewPacketId() {
+		this.packetId = UUID.randomUUID();
+	}
+
+	/**
+	 * Get the remaining time budget of the sender, pass it on to nested records
+	 * using {@link com.xcodiq.record.Record#inheritDeadline(RedisPacket)}
+	 *
+	 * @param timeUnit the time unit to get the remaining budget in
+	 * @return the remaining budget, {@code 0} if the deadline has passed or {@link Long#MAX_VALUE} if there is no deadline
+	 */
+	public long getRemainingBudget(TimeUnit timeUnit) {
+		if (this.deadline == null) return Long.MAX_VALUE;
+		return timeUnit.convert(Math.max(0, Duration.between(Instant.now(), this.deadline).toMillis()), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Check if the deadline of the packet has passed
+	 *
+	 * @return {@code true} if the packet expired, {@code false} otherwise
+	 */
+	public boolean isExpired() {
+		return this.deadline != null && !this.deadline.isAfter(Instant.now());
+	}
+
 	@Override
 	public String getPacketClass() {
 		return this.packetClass;
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.internal;
+
+import com.xcodiq.packet.RedisPacket;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A claim check is sent in place of a packet that is too large to publish, the packet itself is stored
+ * under the key of the claim check and only fetched by the receivers that are going to handle it
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+@Getter
+public final class ClaimCheckPacket extends RedisPacket {
+
+	private final String key; // the key the encoded packet is stored under
+
+	public ClaimCheckPacket(@NotNull String key, @NotNull RedisPacket packet) {
+		super(packet.getPacketStatus());
+		this.key = key;
+
+		// Copy the header of the packet, so it can be routed without fetching the packet
+		this.setRecordId(packet.getRecordId());
+		this.setChannel(packet.getChannel());
+		this.setDeadline(packet.getDeadline());
+		this.setReplyPacket(packet.isReplyPacket());
+	}
+}
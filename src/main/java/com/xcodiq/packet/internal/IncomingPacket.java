@@ -24,9 +24,15 @@
 
 package com.xcodiq.packet.internal;
 
+import com.xcodiq.record.RecordPriority;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
 
 /**
  * @author xCodiq - Elmar (Cody) Lynn
@@ -36,16 +42,93 @@ import org.jetbrains.annotations.NotNull;
 @Getter
 public final class IncomingPacket {
 
-	private final Class<?> recordClass;
-	private final String serializedPacket;
+	private String recordClassName;
+	private String serializedPacket;
+	@Setter
+	private long deadline; // the epoch millis the sender stops waiting for a reply, 0 if unknown
+	@Setter
+	private RecordPriority priority;
+	@Setter
+	private int hops; // the amount of times the packet has been relayed to another redis instance
 
-	public IncomingPacket(Class<?> recordClass, String serializedPacket) {
+	@Setter
+	private String origin; // the node id of the sender, only set for one-way packets
+	@Setter
+	private boolean oneWay; // whether the sender expects no reply
+	@Setter
+	private String senderNode; // the node id of the sender, only set when it can receive its reply through shared memory
+	@Setter
+	private transient ByteBuffer rawPayload; // the binary payload framed behind the packet, null if there is none
+
+	@Getter(AccessLevel.NONE)
+	private Class<?> recordClass; // resolved on first use, receivers usually only need the name
+
+	IncomingPacket() {
+		// used by the pool of the adapter, the fields are set once the envelope is read
+	}
+
+	public IncomingPacket(String recordClassName, String serializedPacket, long deadline, RecordPriority priority) {
+		this.reset(recordClassName, serializedPacket, deadline, priority);
+	}
+
+	public IncomingPacket(Class<?> recordClass, String serializedPacket, long deadline, RecordPriority priority) {
+		this(recordClass.getName(), serializedPacket, deadline, priority);
 		this.recordClass = recordClass;
-		this.serializedPacket = serializedPacket;
+	}
+
+	public IncomingPacket(Class<?> recordClass, String serializedPacket) {
+		this(recordClass, serializedPacket, 0, RecordPriority.NORMAL);
 	}
 
 	@Contract(value = "_, _ -> new", pure = true)
 	public static @NotNull IncomingPacket of(Class<?> recordClass, String serializedPacket) {
 		return new IncomingPacket(recordClass, serializedPacket);
 	}
+
+	@Contract(value = "_, _, _, _ -> new", pure = true)
+	public static @NotNull IncomingPacket of(Class<?> recordClass, String serializedPacket, long deadline, RecordPriority priority) {
+		return new IncomingPacket(recordClass, serializedPacket, deadline, priority);
+	}
+
+	/**
+	 * Get the record class of the packet, loading it on first use
+	 *
+	 * @return the record class, or {@code null} if it is not available in this instance
+	 */
+	public @Nullable Class<?> getRecordClass() {
+		if (this.recordClass == null) {
+			try {
+				this.recordClass = Class.forName(this.recordClassName);
+			} catch (ClassNotFoundException ignored) {
+				return null;
+			}
+		}
+		return this.recordClass;
+	}
+
+	/**
+	 * Check if the deadline of the packet has passed, meaning the sender is no longer waiting for a reply
+	 *
+	 * @return {@code true} if the packet expired, {@code false} otherwise
+	 */
+	public boolean isExpired() {
+		return this.deadline > 0 && this.deadline <= System.currentTimeMillis();
+	}
+
+	/**
+	 * Reset the envelope, so it can be reused for another packet
+	 */
+	void reset(String recordClassName, String serializedPacket, long deadline, RecordPriority priority) {
+		this.recordClassName = recordClassName;
+		this.serializedPacket = serializedPacket;
+		this.deadline = deadline;
+		this.priority = priority;
+
+		this.hops = 0;
+		this.origin = null;
+		this.oneWay = false;
+		this.senderNode = null;
+		this.rawPayload = null;
+		this.recordClass = null;
+	}
 }
@@ -24,36 +24,118 @@
 
 package com.xcodiq.packet.internal;
 
-import com.google.gson.*;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.xcodiq.record.RecordPriority;
+import com.xcodiq.util.pool.ObjectPool;
+import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
+ * Reads and writes envelopes as a stream, without building a json tree of every envelope first.
+ * Envelopes are taken from a pool while pooling is enabled, see {@link #recycle(IncomingPacket)}.
+ *
  * @author xCodiq - Elmar (Cody) Lynn
  * @wesbite https://xcodiq.com
  * @since 1.0
  */
-public final class IncomingPacketAdapter implements JsonSerializer<IncomingPacket>, JsonDeserializer<IncomingPacket> {
+public final class IncomingPacketAdapter extends TypeAdapter<IncomingPacket> {
+
+	private final ObjectPool<IncomingPacket> pool = new ObjectPool<>(IncomingPacket::new, 1024);
+	private volatile boolean pooling = false; // whether envelopes are taken from and returned to the pool
+
+	public void setPooling(boolean pooling) {
+		this.pooling = pooling;
+	}
+
+	/**
+	 * Return a read envelope to the pool once its packet has been handled, it must not be used after this
+	 *
+	 * @param incomingPacket the envelope to return
+	 */
+	public void recycle(@NotNull IncomingPacket incomingPacket) {
+		if (!this.pooling) return;
+
+		incomingPacket.reset(null, null, 0, RecordPriority.NORMAL);
+		this.pool.release(incomingPacket);
+	}
 
 	@Override
-	public IncomingPacket deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-		final JsonObject jsonObject = json.getAsJsonObject();
-		try {
-			return IncomingPacket.of(Class.forName(jsonObject.get("recordClass").getAsString()),
-					jsonObject.get("serializedPacket").getAsString());
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
+	public IncomingPacket read(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
 			return null;
 		}
+
+		String recordClassName = null, serializedPacket = null, origin = null, senderNode = null;
+		long deadline = 0;
+		int hops = 0;
+		boolean oneWay = false;
+		RecordPriority priority = RecordPriority.NORMAL;
+
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "recordClass":
+					recordClassName = in.nextString();
+					break;
+				case "serializedPacket":
+					// Only a header read for relaying has no serialized packet
+					if (in.peek() == JsonToken.NULL) in.nextNull();
+					else serializedPacket = in.nextString();
+					break;
+				case "deadline":
+					deadline = in.nextLong();
+					break;
+				case "priority":
+					priority = RecordPriority.valueOf(in.nextString());
+					break;
+				case "hops":
+					hops = in.nextInt();
+					break;
+				case "senderNode":
+					senderNode = in.nextString();
+					break;
+				case "origin":
+					// Only one-way packets carry their origin
+					oneWay = true;
+					if (in.peek() == JsonToken.NULL) in.nextNull();
+					else origin = in.nextString();
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+
+		// The record class is only loaded when it is needed, most receivers only look up its name
+		final IncomingPacket incomingPacket = this.pooling ? this.pool.acquire() : new IncomingPacket();
+		incomingPacket.reset(recordClassName, serializedPacket, deadline, priority);
+		incomingPacket.setHops(hops);
+		incomingPacket.setSenderNode(senderNode);
+		incomingPacket.setOrigin(origin);
+		incomingPacket.setOneWay(oneWay);
+		return incomingPacket;
 	}
 
 	@Override
-	public JsonElement serialize(IncomingPacket incomingPacket, Type typeOfSrc, JsonSerializationContext context) {
-		final JsonObject jsonObject = new JsonObject();
-
-		jsonObject.addProperty("recordClass", incomingPacket.getRecordClass().getName());
-		jsonObject.addProperty("serializedPacket", incomingPacket.getSerializedPacket());
+	public void write(JsonWriter out, IncomingPacket incomingPacket) throws IOException {
+		if (incomingPacket == null) {
+			out.nullValue();
+			return;
+		}
 
-		return jsonObject;
+		out.beginObject();
+		out.name("recordClass").value(incomingPacket.getRecordClassName());
+		out.name("serializedPacket").value(incomingPacket.getSerializedPacket());
+		if (incomingPacket.getDeadline() > 0) out.name("deadline").value(incomingPacket.getDeadline());
+		if (incomingPacket.isOneWay()) out.name("origin").value(incomingPacket.getOrigin());
+		if (incomingPacket.getPriority() != RecordPriority.NORMAL) out.name("priority").value(incomingPacket.getPriority().name());
+		if (incomingPacket.getHops() > 0) out.name("hops").value(incomingPacket.getHops());
+		if (incomingPacket.getSenderNode() != null) out.name("senderNode").value(incomingPacket.getSenderNode());
+		out.endObject();
 	}
 }
@@ -24,14 +24,14 @@
 
 package com.xcodiq.packet.listener;
 
-import com.xcodiq.pubsub.MessageListener;
+import com.xcodiq.pubsub.BinaryMessageListener;
 
 /**
  * @author xCodiq - Elmar (Cody) Lynn
  * @wesbite https://xcodiq.com
  * @since 1.0
  */
-public abstract class PacketListener extends MessageListener {
+public abstract class PacketListener extends BinaryMessageListener {
 
 	private final String channelPrefix;
 
@@ -40,7 +40,7 @@ public abstract class PacketListener extends MessageListener {
 	}
 
 	@Override
-	public void message(String pattern, String channel, String message) {
+	public void message(String pattern, String channel, byte[] message) {
 		// Check if the channel starts with the channel prefix
 		if (!channel.startsWith(this.channelPrefix)) return;
 
@@ -51,8 +51,8 @@ public abstract class PacketListener extends MessageListener {
 	/**
 	 * Process the received redis-packet
 	 *
-	 * @param channel          the channel of the redis-packet
-	 * @param serializedPacket the serialized packet
+	 * @param channel the channel of the redis-packet
+	 * @param message the encoded packet, see {@link com.xcodiq.packet.serialization.PacketCodec}
 	 */
-	public abstract void process(String channel, String serializedPacket);
+	public abstract void process(String channel, byte[] message);
 }
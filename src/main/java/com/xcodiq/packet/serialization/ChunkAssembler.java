@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.serialization;
+
+import com.xcodiq.util.collection.ExpiringMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits large messages into chunks, and reassembles received chunks into their message.
+ * <p>
+ * A chunk is framed as: the chunk magic byte, the transfer id, the index of the chunk, the amount of chunks and the
+ * length of the message, followed by its part of the message. The chunks of a transfer are published in order on
+ * a single connection, so they arrive in order. The reassembly buffer of a transfer is allocated at its first chunk,
+ * and every chunk is copied into place as it arrives, so no list of chunks is ever concatenated.
+ * <p>
+ * The reassembly buffers are bounded in their total size, and a transfer that is not complete within its timeout
+ * is dropped, e.g. when its sender crashed halfway through. A chunk that does not agree with the first chunk of its
+ * transfer, or arrives out of order, drops the transfer as well.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class ChunkAssembler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ChunkAssembler.class);
+
+	private static final byte CHUNK_MAGIC = 1; // json never starts with it, and binary frames start with 0
+	private static final int CHUNK_HEADER_SIZE = 1 + 16 + 3 * Integer.BYTES;
+
+	private final ExpiringMap<UUID, Transfer> transfers;
+	private final long maxBufferedBytes;
+	private final int timeout;
+	private final TimeUnit timeUnit;
+
+	private long bufferedBytes;
+
+	/**
+	 * Constructs a new chunk assembler
+	 *
+	 * @param maxBufferedBytes the maximum size of all reassembly buffers together, transfers beyond it are dropped
+	 * @param scheduler        the scheduler to expire incomplete transfers on
+	 * @param timeout          the time a transfer may take to complete
+	 * @param timeUnit         the time unit of the timeout
+	 */
+	public ChunkAssembler(long maxBufferedBytes, ScheduledExecutorService scheduler, int timeout, TimeUnit timeUnit) {
+		this.maxBufferedBytes = maxBufferedBytes;
+		this.timeout = timeout;
+		this.timeUnit = timeUnit;
+		this.transfers = new ExpiringMap<UUID, Transfer>((transferId, transfer) -> {
+			synchronized (this) {
+				this.bufferedBytes -= transfer.message.length;
+			}
+			LOG.debug("Dropped incomplete chunked transfer: " + transferId);
+		}).setScheduler(scheduler);
+	}
+
+	/**
+	 * Split a message into chunks
+	 *
+	 * @param message   the message to split
+	 * @param chunkSize the maximum size of the part of the message in a chunk
+	 * @return the chunks of the message, in the order they have to be published in
+	 */
+	public static @NotNull List<byte[]> split(byte @NotNull [] message, int chunkSize) {
+		final UUID transferId = UUID.randomUUID();
+		final int count = (message.length + chunkSize - 1) / chunkSize;
+
+		final List<byte[]> chunks = new ArrayList<>(count);
+		for (int index = 0; index < count; index++) {
+			final int offset = index * chunkSize;
+			final int length = Math.min(chunkSize, message.length - offset);
+
+			final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER_SIZE + length)
+					.put(CHUNK_MAGIC)
+					.putLong(transferId.getMostSignificantBits())
+					.putLong(transferId.getLeastSignificantBits())
+					.putInt(index)
+					.putInt(count)
+					.putInt(message.length)
+					.put(message, offset, length);
+			chunks.add(chunk.array());
+		}
+		return chunks;
+	}
+
+	/**
+	 * Check if a message is a chunk of a larger message
+	 *
+	 * @param message the message to check
+	 * @return {@code true} if the message is a chunk, {@code false} otherwise
+	 */
+	public static boolean isChunk(byte @NotNull [] message) {
+		return message.length >= CHUNK_HEADER_SIZE && message[0] == CHUNK_MAGIC;
+	}
+
+	/**
+	 * Accept a received chunk
+	 *
+	 * @param chunk the received chunk
+	 * @return the reassembled message once the last chunk of its transfer has been accepted, {@code null} otherwise
+	 */
+	public synchronized byte @Nullable [] accept(byte @NotNull [] chunk) {
+		final ByteBuffer header = ByteBuffer.wrap(chunk, 1, CHUNK_HEADER_SIZE - 1);
+		final UUID transferId = new UUID(header.getLong(), header.getLong());
+		final int index = header.getInt(), count = header.getInt(), length = header.getInt();
+		final int partLength = chunk.length - CHUNK_HEADER_SIZE;
+
+		Transfer transfer;
+		synchronized (this.transfers) {
+			transfer = this.transfers.get(transferId);
+		}
+		if (transfer == null) {
+			// A transfer starts at its first chunk, the rest of a dropped transfer is ignored
+			if (index != 0) return null;
+
+			// The first chunk tells the chunk size, the length has to fill the last chunk without overflowing it
+			if (count < 1 || partLength < 1 || length < 1 || (long) (count - 1) * partLength >= length
+					|| (long) count * partLength < length) {
+				LOG.warn("Dropped chunked transfer " + transferId + ", its first chunk has an invalid header");
+				return null;
+			}
+			if (this.bufferedBytes + length > this.maxBufferedBytes) {
+				LOG.warn("Dropped chunked transfer of " + length + " bytes, the reassembly buffers are full");
+				return null;
+			}
+
+			transfer = new Transfer(new byte[length], count, partLength);
+			this.bufferedBytes += length;
+			synchronized (this.transfers) {
+				this.transfers.put(transferId, transfer, this.timeout, this.timeUnit);
+			}
+		}
+
+		// Every chunk has to agree with the first one, and arrive in order, only the last chunk may be shorter
+		final int offset = index * transfer.chunkSize;
+		final int expectedLength = index == count - 1 ? transfer.message.length - offset : transfer.chunkSize;
+		if (index != transfer.received || count != transfer.count || length != transfer.message.length || partLength != expectedLength) {
+			LOG.warn("Dropped chunked transfer " + transferId + ", chunk " + index + " does not match its transfer");
+			this.drop(transferId);
+			return null;
+		}
+
+		// Copy the part of the message into place
+		System.arraycopy(chunk, CHUNK_HEADER_SIZE, transfer.message, offset, partLength);
+		if (++transfer.received < count) return null;
+
+		// Release the buffer, unless the transfer just expired and its buffer has been released already
+		final Transfer completedTransfer;
+		synchronized (this.transfers) {
+			completedTransfer = this.transfers.remove(transferId);
+		}
+		if (completedTransfer != null) this.bufferedBytes -= length;
+		return transfer.message;
+	}
+
+	/**
+	 * Drop a transfer before it completed, releasing its buffer
+	 *
+	 * @param transferId the id of the transfer
+	 */
+	private void drop(UUID transferId) {
+		final Transfer droppedTransfer;
+		synchronized (this.transfers) {
+			droppedTransfer = this.transfers.remove(transferId);
+		}
+		if (droppedTransfer != null) this.bufferedBytes -= droppedTransfer.message.length;
+	}
+
+	private static final class Transfer {
+
+		private final byte[] message;
+		private final int count; // the amount of chunks of the transfer
+		private final int chunkSize; // the size of the part of the message in every chunk but the last
+		private int received; // the amount of chunks received
+
+		private Transfer(byte[] message, int count, int chunkSize) {
+			this.message = message;
+			this.count = count;
+			this.chunkSize = chunkSize;
+		}
+	}
+}
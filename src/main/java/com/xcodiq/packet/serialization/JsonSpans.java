@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.serialization;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds the value of a top-level field in a json object without parsing it, so the value can be cut out or copied
+ * as it is. A span is returned as the start index of the value in the upper 32 bits and its end index in the lower
+ * 32 bits, or {@code -1} if the object has no such field. The json is expected to be valid, as written by gson.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class JsonSpans {
+
+	private JsonSpans() {
+	}
+
+	static int start(long span) {
+		return (int) (span >>> 32);
+	}
+
+	static int end(long span) {
+		return (int) span;
+	}
+
+	/**
+	 * Find the value of a top-level field in a json string
+	 *
+	 * @param json the json object
+	 * @param key  the name of the field, without characters that need escaping
+	 * @return the span of the value, or {@code -1} if there is no such field
+	 */
+	static long valueSpan(String json, String key) {
+		int depth = 0;
+		for (int i = 0; i < json.length(); i++) {
+			final char c = json.charAt(i);
+			if (c == '"') {
+				final int end = skipString(json, i);
+				if (depth == 1 && end - i == key.length() + 2 && json.startsWith(key, i + 1)) {
+					int start = skipWhitespace(json, end);
+					if (start < json.length() && json.charAt(start) == ':') {
+						start = skipWhitespace(json, start + 1);
+						return (long) start << 32 | skipValue(json, start);
+					}
+				}
+				i = end - 1;
+			} else if (c == '{' || c == '[') depth++;
+			else if (c == '}' || c == ']') depth--;
+		}
+		return -1;
+	}
+
+	/**
+	 * Find the value of a top-level field in UTF-8 encoded json, multi-byte characters never contain the ascii
+	 * bytes this looks for
+	 *
+	 * @param json the bytes containing the json object
+	 * @param from the index of the first byte of the json object
+	 * @param to   the index after the last byte of the json object
+	 * @param key  the name of the field, without characters that need escaping
+	 * @return the span of the value, or {@code -1} if there is no such field
+	 */
+	static long valueSpan(byte[] json, int from, int to, String key) {
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int depth = 0;
+		for (int i = from; i < to; i++) {
+			final byte b = json[i];
+			if (b == '"') {
+				final int end = skipString(json, i, to);
+				if (depth == 1 && end - i == keyBytes.length + 2 && regionEquals(json, i + 1, keyBytes)) {
+					int start = skipWhitespace(json, end, to);
+					if (start < to && json[start] == ':') {
+						start = skipWhitespace(json, start + 1, to);
+						return (long) start << 32 | skipValue(json, start, to);
+					}
+				}
+				i = end - 1;
+			} else if (b == '{' || b == '[') depth++;
+			else if (b == '}' || b == ']') depth--;
+		}
+		return -1;
+	}
+
+	private static int skipString(String json, int start) {
+		int i = start + 1;
+		while (i < json.length() && json.charAt(i) != '"') i += json.charAt(i) == '\\' ? 2 : 1;
+		return i + 1;
+	}
+
+	private static int skipWhitespace(String json, int start) {
+		int i = start;
+		while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
+		return i;
+	}
+
+	private static int skipValue(String json, int start) {
+		int depth = 0, i = start;
+		while (i < json.length()) {
+			final char c = json.charAt(i);
+			if (c == '"') {
+				i = skipString(json, i);
+				if (depth == 0) return i;
+				continue;
+			}
+			if (c == '{' || c == '[') depth++;
+			else if (c == '}' || c == ']') {
+				if (depth == 0) return i; // the end of a scalar value, the closing bracket of the object
+				if (--depth == 0) return i + 1;
+			} else if (depth == 0 && (c == ',' || Character.isWhitespace(c))) return i;
+			i++;
+		}
+		return i;
+	}
+
+	private static int skipString(byte[] json, int start, int to) {
+		int i = start + 1;
+		while (i < to && json[i] != '"') i += json[i] == '\\' ? 2 : 1;
+		return i + 1;
+	}
+
+	private static int skipWhitespace(byte[] json, int start, int to) {
+		int i = start;
+		while (i < to && (json[i] == ' ' || json[i] == '\n' || json[i] == '\r' || json[i] == '\t')) i++;
+		return i;
+	}
+
+	private static int skipValue(byte[] json, int start, int to) {
+		int depth = 0, i = start;
+		while (i < to) {
+			final byte b = json[i];
+			if (b == '"') {
+				i = skipString(json, i, to);
+				if (depth == 0) return i;
+				continue;
+			}
+			if (b == '{' || b == '[') depth++;
+			else if (b == '}' || b == ']') {
+				if (depth == 0) return i; // the end of a scalar value, the closing bracket of the object
+				if (--depth == 0) return i + 1;
+			} else if (depth == 0 && (b == ',' || b == ' ' || b == '\n' || b == '\r' || b == '\t')) return i;
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean regionEquals(byte[] json, int offset, byte[] key) {
+		for (int i = 0; i < key.length; i++) if (json[offset + i] != key[i]) return false;
+		return true;
+	}
+}
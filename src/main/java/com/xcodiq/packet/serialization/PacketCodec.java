@@ -0,0 +1,498 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.serialization;
+
+import com.fatboyindustrial.gsonjavatime.Converters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.InstanceCreator;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.stream.JsonReader;
+import com.xcodiq.packet.BinaryPayload;
+import com.xcodiq.packet.GenericPacket;
+import com.xcodiq.packet.Recyclable;
+import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.packet.internal.IncomingPacket;
+import com.xcodiq.packet.internal.IncomingPacketAdapter;
+import com.xcodiq.util.pool.ObjectPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The packet codec is responsible for (de)serializing the packets and envelopes of a single RPC instance.
+ * Every RPC instance owns its own codec, so type adapters registered on one instance never affect another.
+ * <p>
+ * A message is the UTF-8 json of a packet, unless the packet carries a {@link BinaryPayload}. Then it is framed:
+ * a zero byte (json never starts with one), the length of the json as an int, the json and the raw payload.
+ * Messages starting with a one byte are chunks of a larger message, see {@link ChunkAssembler}.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class PacketCodec {
+
+	private static final PacketCodec DEFAULT = new PacketCodec();
+
+	private static final Logger LOG = LoggerFactory.getLogger(PacketCodec.class);
+
+	private static final byte FRAME_MAGIC = 0;
+	private static final int FRAME_HEADER_SIZE = 5; // the magic byte and the json length
+	private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.UTF_8);
+
+	private static final int POOL_CAPACITY = 1024; // the pooled packets kept per packet class
+
+	private final GsonBuilder gsonBuilder;
+	private volatile Gson gson;
+
+	private final IncomingPacketAdapter incomingPacketAdapter = new IncomingPacketAdapter();
+	private final Map<String, Class<?>> packetClasses = new ConcurrentHashMap<>(); // the loaded packet classes, by name
+	private final Map<Class<?>, ObjectPool<RedisPacket>> packetPools = new ConcurrentHashMap<>();
+	private final Set<Class<?>> unpooledClasses = ConcurrentHashMap.newKeySet(); // recyclable classes without a no-arg constructor
+	private volatile boolean pooling = false; // whether recyclable packets and envelopes are reused
+
+	private final Map<Class<?>, Type> payloadTypes = new ConcurrentHashMap<>(); // the payload types of generic packets, by class
+	private volatile boolean lazyPayloads = false; // whether the payloads of generic packets are decoded on first use
+
+	public PacketCodec() {
+		this.gsonBuilder = Converters.registerAll(new GsonBuilder()
+				.registerTypeHierarchyAdapter(IncomingPacket.class, this.incomingPacketAdapter)
+				.excludeFieldsWithModifiers(128)
+				.serializeNulls()
+				.disableHtmlEscaping()
+				.enableComplexMapKeySerialization()
+				.setPrettyPrinting());
+		this.gson = this.gsonBuilder.create();
+	}
+
+	/**
+	 * Get the default codec, shared by the static compatibility methods and the global RPC instance
+	 *
+	 * @return the default codec
+	 */
+	public static @NotNull PacketCodec getDefault() {
+		return DEFAULT;
+	}
+
+	public @NotNull Gson getGson() {
+		return gson;
+	}
+
+	/**
+	 * Rebuild the gson instance of this codec from its builder
+	 */
+	public synchronized void rebuild() {
+		this.gson = this.gsonBuilder.create();
+	}
+
+	/**
+	 * Register a type adapter on this codec only
+	 *
+	 * @param type        the type to register the adapter for
+	 * @param typeAdapter the type adapter to register
+	 */
+	public synchronized void registerTypeAdapter(Type type, Object typeAdapter) {
+		this.gsonBuilder.registerTypeAdapter(type, typeAdapter);
+		this.rebuild();
+	}
+
+	/**
+	 * Enable or disable the pooling of received packets implementing {@link Recyclable}, and of envelopes
+	 *
+	 * @param pooling whether packets and envelopes are reused
+	 */
+	public void setPooling(boolean pooling) {
+		this.pooling = pooling;
+		this.incomingPacketAdapter.setPooling(pooling);
+	}
+
+	public boolean isPooling() {
+		return this.pooling;
+	}
+
+	/**
+	 * Enable or disable lazy payloads, the payload of a received {@link GenericPacket} is then kept encoded
+	 * until {@link GenericPacket#getPayload()} is first called
+	 *
+	 * @param lazyPayloads whether payloads are decoded on first use
+	 */
+	public void setLazyPayloads(boolean lazyPayloads) {
+		this.lazyPayloads = lazyPayloads;
+	}
+
+	public boolean isLazyPayloads() {
+		return this.lazyPayloads;
+	}
+
+	/**
+	 * Return a received packet to its pool once it has been handled, it must not be used after this.
+	 * Packets that are not {@link Recyclable}, or were not deserialized by this codec while pooling, are ignored
+	 *
+	 * @param redisPacket the packet to return
+	 */
+	public void recycle(@Nullable RedisPacket redisPacket) {
+		if (!(redisPacket instanceof Recyclable)) return;
+
+		final ObjectPool<RedisPacket> pool = this.packetPools.get(redisPacket.getClass());
+		if (pool == null) return;
+
+		((Recyclable) redisPacket).recycle();
+		redisPacket.setCancellationToken(null);
+		pool.release(redisPacket);
+	}
+
+	/**
+	 * Return a decoded envelope to the pool once its packet has been handled, it must not be used after this
+	 *
+	 * @param incomingPacket the envelope to return
+	 */
+	public void recycle(@NotNull IncomingPacket incomingPacket) {
+		this.incomingPacketAdapter.recycle(incomingPacket);
+	}
+
+	public <T extends RedisPacket> String serialize(T redisPacket) {
+		final String encodedPayload = redisPacket instanceof GenericPacket ? ((GenericPacket<?>) redisPacket).getEncodedPayload() : null;
+		final String json = this.gson.toJson(redisPacket);
+		if (encodedPayload == null) return json;
+
+		// Put the payload that was never decoded back as it was received, e.g. when the packet is forwarded
+		final long span = JsonSpans.valueSpan(json, "payload");
+		if (span < 0) return json;
+		return json.substring(0, JsonSpans.start(span)) + encodedPayload + json.substring(JsonSpans.end(span));
+	}
+
+	public <T extends RedisPacket> @Nullable T deserialize(String serializedRedisPacket) {
+		return this.deserialize(serializedRedisPacket, null);
+	}
+
+	/**
+	 * Deserialize a packet, and pass it its binary payload if it carries one
+	 *
+	 * @param serializedRedisPacket the serialized packet
+	 * @param rawPayload            the binary payload framed behind the packet, or {@code null} if there is none
+	 * @return the deserialized packet, or {@code null} if its class is not available in this instance
+	 */
+	public <T extends RedisPacket> @Nullable T deserialize(String serializedRedisPacket, @Nullable ByteBuffer rawPayload) {
+		final Class<T> packetClass = (Class<T>) this.packetClassOf(serializedRedisPacket);
+		if (packetClass == null) return null;
+
+		// Make sure recyclable packets are taken from their pool before the packet is read
+		if (this.pooling && Recyclable.class.isAssignableFrom(packetClass) && !this.packetPools.containsKey(packetClass)
+				&& !this.unpooledClasses.contains(packetClass)) this.registerPool(packetClass);
+
+		final T packet = this.lazyPayloads && GenericPacket.class.isAssignableFrom(packetClass)
+				? (T) this.deserializeLazily((Class<? extends GenericPacket<?>>) packetClass, serializedRedisPacket)
+				: this.gson.fromJson(serializedRedisPacket, packetClass);
+		if (rawPayload != null && packet instanceof BinaryPayload) ((BinaryPayload) packet).readPayload(rawPayload);
+		return packet;
+	}
+
+	/**
+	 * Deserialize a generic packet without its payload, the json of the payload is kept and decoded on first use
+	 *
+	 * @param packetClass           the class of the packet
+	 * @param serializedRedisPacket the serialized packet
+	 * @return the deserialized packet
+	 */
+	private <T> GenericPacket<T> deserializeLazily(Class<? extends GenericPacket<?>> packetClass, String serializedRedisPacket) {
+		final Gson gson = this.gson;
+		final long span = JsonSpans.valueSpan(serializedRedisPacket, "payload");
+		final int start = JsonSpans.start(span), end = JsonSpans.end(span);
+
+		// Without a payload there is nothing to defer, clear the encoded payload a pooled packet may still hold
+		if (span < 0 || serializedRedisPacket.startsWith("null", start) && end - start == 4) {
+			final GenericPacket<T> packet = (GenericPacket<T>) gson.fromJson(serializedRedisPacket, packetClass);
+			packet.setEncodedPayload(null, null);
+			return packet;
+		}
+
+		final String encodedPayload = serializedRedisPacket.substring(start, end);
+		final GenericPacket<T> packet = (GenericPacket<T>) gson.fromJson(serializedRedisPacket.substring(0, start) + "null"
+				+ serializedRedisPacket.substring(end), packetClass);
+
+		final Type payloadType = this.payloadTypes.computeIfAbsent(packetClass, PacketCodec::payloadTypeOf);
+		packet.setEncodedPayload(encodedPayload, json -> gson.fromJson(json, payloadType));
+		return packet;
+	}
+
+	/**
+	 * Resolve the payload type of a generic packet class, e.g. {@code Map<String, Integer>} for a subclass of
+	 * {@code MapPacket<String, Integer>}
+	 *
+	 * @param packetClass the class of the packet
+	 * @return the payload type
+	 */
+	private static Type payloadTypeOf(Class<?> packetClass) {
+		try {
+			return $Gson$Types.resolve(packetClass, packetClass, GenericPacket.class.getDeclaredField("payload").getGenericType());
+		} catch (NoSuchFieldException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * Get the class of a serialized packet, only reading its packet class instead of the whole packet
+	 *
+	 * @param serializedRedisPacket the serialized packet
+	 * @return the class of the packet, or {@code null} if it is not available in this instance
+	 */
+	private @Nullable Class<?> packetClassOf(String serializedRedisPacket) {
+		String packetClassName = null;
+		try (JsonReader reader = new JsonReader(new StringReader(serializedRedisPacket))) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (reader.nextName().equals("packetClass")) {
+					packetClassName = reader.nextString();
+					break;
+				}
+				reader.skipValue();
+			}
+		} catch (IOException | IllegalStateException exception) {
+			throw new JsonSyntaxException(exception);
+		}
+		if (packetClassName == null) return null;
+
+		Class<?> packetClass = this.packetClasses.get(packetClassName);
+		if (packetClass == null) {
+			try {
+				packetClass = Class.forName(packetClassName);
+			} catch (ClassNotFoundException ignored) {
+				return null;
+			}
+			this.packetClasses.put(packetClassName, packetClass);
+		}
+		return packetClass;
+	}
+
+	/**
+	 * Create the pool of a recyclable packet class, gson takes the packets it reads from it
+	 *
+	 * @param packetClass the recyclable packet class
+	 */
+	private synchronized void registerPool(Class<?> packetClass) {
+		if (this.packetPools.containsKey(packetClass) || this.unpooledClasses.contains(packetClass)) return;
+
+		final Constructor<?> constructor;
+		try {
+			constructor = packetClass.getDeclaredConstructor();
+			constructor.setAccessible(true);
+		} catch (NoSuchMethodException | RuntimeException exception) {
+			LOG.warn("Unable to pool the recyclable packet " + packetClass.getName() + ", it has no accessible no-arg constructor");
+			this.unpooledClasses.add(packetClass);
+			return;
+		}
+
+		final ObjectPool<RedisPacket> pool = new ObjectPool<>(() -> {
+			try {
+				return (RedisPacket) constructor.newInstance();
+			} catch (ReflectiveOperationException exception) {
+				throw new IllegalStateException("Unable to create the recyclable packet " + packetClass.getName(), exception);
+			}
+		}, POOL_CAPACITY);
+
+		this.gsonBuilder.registerTypeAdapter(packetClass, (InstanceCreator<RedisPacket>) type -> pool.acquire());
+		this.rebuild();
+		this.packetPools.put(packetClass, pool);
+	}
+
+	public String serializeIncomingPacket(IncomingPacket incomingPacket) {
+		return this.gson.toJson(incomingPacket);
+	}
+
+	public @Nullable IncomingPacket deserializeIncomingPacket(String serializedIncomingPacket) {
+		return this.gson.fromJson(serializedIncomingPacket, IncomingPacket.class);
+	}
+
+	/**
+	 * Encode a packet to a message
+	 *
+	 * @param redisPacket the packet to encode
+	 * @return the encoded message
+	 */
+	public byte[] encode(@NotNull RedisPacket redisPacket) {
+		return encode(this.serialize(redisPacket), rawPayloadOf(redisPacket));
+	}
+
+	/**
+	 * Encode a serialized packet and its binary payload to a message
+	 *
+	 * @param serializedRedisPacket the serialized packet
+	 * @param rawPayload            the binary payload of the packet, or {@code null} if there is none
+	 * @return the encoded message
+	 */
+	public static byte[] encode(@NotNull String serializedRedisPacket, @Nullable ByteBuffer rawPayload) {
+		return frame(serializedRedisPacket, rawPayload);
+	}
+
+	/**
+	 * Decode a packet from a message, the binary payload of the packet is a view of the message
+	 *
+	 * @param message the message to decode
+	 * @return the decoded packet, or {@code null} if its class is not available in this instance
+	 */
+	public <T extends RedisPacket> @Nullable T decode(byte @NotNull [] message) {
+		return this.deserialize(jsonOf(message), rawPayloadOf(message));
+	}
+
+	/**
+	 * Encode an incoming packet to a message, framing its raw payload behind it
+	 *
+	 * @param incomingPacket the incoming packet to encode
+	 * @return the encoded message
+	 */
+	public byte[] encodeIncomingPacket(@NotNull IncomingPacket incomingPacket) {
+		return frame(this.serializeIncomingPacket(incomingPacket), incomingPacket.getRawPayload());
+	}
+
+	/**
+	 * Decode an incoming packet from a message, its raw payload is a view of the message
+	 *
+	 * @param message the message to decode
+	 * @return the decoded incoming packet
+	 */
+	public @Nullable IncomingPacket decodeIncomingPacket(byte @NotNull [] message) {
+		final IncomingPacket incomingPacket = this.deserializeIncomingPacket(jsonOf(message));
+		if (incomingPacket != null) incomingPacket.setRawPayload(rawPayloadOf(message));
+		return incomingPacket;
+	}
+
+	/**
+	 * Decode only the header of an encoded incoming packet, its serialized packet is skipped without being read.
+	 * The returned incoming packet has no serialized packet, change its header and pass it to
+	 * {@link #reencodeIncomingPacket(byte[], IncomingPacket)} to forward the message
+	 *
+	 * @param message the encoded incoming packet
+	 * @return the header of the incoming packet
+	 */
+	public @NotNull IncomingPacket decodeIncomingPacketHeader(byte @NotNull [] message) {
+		final int from = jsonOffsetOf(message), to = from + jsonLengthOf(message);
+		final long span = serializedPacketSpanOf(message, from, to);
+		final int start = JsonSpans.start(span), end = JsonSpans.end(span);
+
+		// Read the fields around the serialized packet only, with a null in its place
+		final byte[] header = new byte[start - from + 4 + to - end];
+		System.arraycopy(message, from, header, 0, start - from);
+		System.arraycopy(NULL_BYTES, 0, header, start - from, 4);
+		System.arraycopy(message, end, header, start - from + 4, to - end);
+
+		final IncomingPacket incomingPacket = this.deserializeIncomingPacket(new String(header, StandardCharsets.UTF_8));
+		if (incomingPacket == null) throw new JsonSyntaxException("The message does not contain an incoming packet");
+		return incomingPacket;
+	}
+
+	/**
+	 * Encode an incoming packet again with a changed header, copying its serialized packet and raw payload
+	 * from the original message as they are
+	 *
+	 * @param message the original encoded incoming packet
+	 * @param header  the changed header, as decoded by {@link #decodeIncomingPacketHeader(byte[])}
+	 * @return the encoded incoming packet
+	 */
+	public byte @NotNull [] reencodeIncomingPacket(byte @NotNull [] message, @NotNull IncomingPacket header) {
+		final int from = jsonOffsetOf(message), to = from + jsonLengthOf(message);
+		final long span = serializedPacketSpanOf(message, from, to);
+		final int start = JsonSpans.start(span), end = JsonSpans.end(span);
+
+		// Write the header with a null serialized packet, and put the original one in its place
+		final byte[] headerJson = this.serializeIncomingPacket(header).getBytes(StandardCharsets.UTF_8);
+		final long headerSpan = serializedPacketSpanOf(headerJson, 0, headerJson.length);
+		final int headerStart = JsonSpans.start(headerSpan), headerEnd = JsonSpans.end(headerSpan);
+
+		final int jsonLength = headerStart + (end - start) + (headerJson.length - headerEnd);
+		final int rawLength = isFramed(message) ? message.length - to : 0;
+		final ByteBuffer buffer = ByteBuffer.allocate((rawLength > 0 ? FRAME_HEADER_SIZE : 0) + jsonLength + rawLength);
+		if (rawLength > 0) buffer.put(FRAME_MAGIC).putInt(jsonLength);
+		buffer.put(headerJson, 0, headerStart).put(message, start, end - start).put(headerJson, headerEnd, headerJson.length - headerEnd);
+		if (rawLength > 0) buffer.put(message, to, rawLength);
+		return buffer.array();
+	}
+
+	/**
+	 * Get the binary payload of a packet
+	 *
+	 * @param redisPacket the packet to get the binary payload of
+	 * @return the binary payload, or {@code null} if the packet does not carry one
+	 */
+	public static @Nullable ByteBuffer rawPayloadOf(@NotNull RedisPacket redisPacket) {
+		return redisPacket instanceof BinaryPayload ? ((BinaryPayload) redisPacket).writePayload() : null;
+	}
+
+	private static byte[] frame(String json, @Nullable ByteBuffer rawPayload) {
+		final byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+		if (rawPayload == null) return jsonBytes;
+
+		final ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + jsonBytes.length + rawPayload.remaining());
+		frame.put(FRAME_MAGIC).putInt(jsonBytes.length).put(jsonBytes).put(rawPayload.duplicate());
+		return frame.array();
+	}
+
+	private static boolean isFramed(byte[] message) {
+		return message.length >= FRAME_HEADER_SIZE && message[0] == FRAME_MAGIC;
+	}
+
+	private static long serializedPacketSpanOf(byte[] json, int from, int to) {
+		final long span = JsonSpans.valueSpan(json, from, to, "serializedPacket");
+		if (span < 0) throw new JsonSyntaxException("The message does not contain an incoming packet");
+		return span;
+	}
+
+	private static int jsonOffsetOf(byte[] message) {
+		return isFramed(message) ? FRAME_HEADER_SIZE : 0;
+	}
+
+	private static int jsonLengthOf(byte[] message) {
+		if (!isFramed(message)) return message.length;
+
+		final int length = ByteBuffer.wrap(message, 1, 4).getInt();
+		if (length < 0 || length > message.length - FRAME_HEADER_SIZE) {
+			throw new JsonSyntaxException("The message has an invalid json length " + length + " for a frame of " + message.length + " bytes");
+		}
+		return length;
+	}
+
+	private static String jsonOf(byte[] message) {
+		return new String(message, jsonOffsetOf(message), jsonLengthOf(message), StandardCharsets.UTF_8);
+	}
+
+	private static @Nullable ByteBuffer rawPayloadOf(byte[] message) {
+		if (!isFramed(message)) return null;
+
+		final int offset = FRAME_HEADER_SIZE + jsonLengthOf(message);
+		return ByteBuffer.wrap(message, offset, message.length - offset).slice().asReadOnlyBuffer();
+	}
+}
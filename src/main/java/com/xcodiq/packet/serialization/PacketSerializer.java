@@ -25,28 +25,23 @@
 package com.xcodiq.packet.serialization;
 
 import com.xcodiq.packet.RedisPacket;
-import com.xcodiq.rpc.RPC;
 import org.jetbrains.annotations.Nullable;
 
 /**
+ * Static access to the default {@link PacketCodec}, kept for compatibility
+ *
  * @author xCodiq - Elmar (Cody) Lynn
  * @wesbite https://xcodiq.com
+ * @apiNote Use the codec of an RPC instance instead, see {@link com.xcodiq.rpc.RPC#getCodec()}
  * @since 1.0
  */
 public final class PacketSerializer {
 
 	public static <T extends RedisPacket> String serialize(T redisPacket) {
-		return RPC.getGson().toJson(redisPacket);
+		return PacketCodec.getDefault().serialize(redisPacket);
 	}
 
 	public static <T extends RedisPacket> @Nullable T deserialize(String serializedRedisPacket) {
-		try {
-			final RedisPacket redisPacket = RPC.getGson().fromJson(serializedRedisPacket, RedisPacket.class);
-			Class<T> originalClassType = (Class<T>) Class.forName(redisPacket.getPacketClass());
-
-			return RPC.getGson().fromJson(serializedRedisPacket, originalClassType);
-		} catch (ClassNotFoundException ignored) {
-			return null;
-		}
+		return PacketCodec.getDefault().deserialize(serializedRedisPacket);
 	}
 }
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.sync;
+
+import com.xcodiq.packet.PacketStatus;
+import com.xcodiq.packet.type.DeltaMapPacket;
+import com.xcodiq.packet.type.LongPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The receiving side of a synced map. It keeps the latest version of every channel, and the few versions before it,
+ * since the sender may send several packets against the same acknowledged version before an acknowledgement arrives.
+ * <p>
+ * Reply to a {@link DeltaMapPacket} with the packet returned by {@link #apply(DeltaMapPacket)}.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @see MapSync
+ * @since 1.0
+ */
+public class MapReplica<K, V> {
+
+	private static final int DEFAULT_MAX_VERSIONS = 16;
+
+	private final Map<String, ReplicaState<K, V>> states = new ConcurrentHashMap<>();
+	private final int maxVersions;
+
+	/**
+	 * Constructs a new map replica
+	 *
+	 * @param maxVersions the number of versions kept per channel to apply changes to
+	 */
+	public MapReplica(int maxVersions) {
+		if (maxVersions < 1) throw new IllegalArgumentException("The maximum of versions must be at least 1");
+		this.maxVersions = maxVersions;
+	}
+
+	public MapReplica() {
+		this(DEFAULT_MAX_VERSIONS);
+	}
+
+	/**
+	 * Apply a received packet to its channel
+	 *
+	 * @param packet the received packet
+	 * @return the reply to send back, carrying the version of the channel, with the status
+	 * {@link PacketStatus#PRECONDITION_FAILED} if the base version of the packet is unknown and a snapshot is needed
+	 */
+	public @NotNull LongPacket apply(@NotNull DeltaMapPacket<K, V> packet) {
+		final ReplicaState<K, V> replicaState = this.states.computeIfAbsent(packet.getSyncChannel(), key -> new ReplicaState<>());
+
+		synchronized (replicaState) {
+			// The changes are older than the current version, which already contains them. A snapshot is always
+			// applied, the sender may have restarted its versions
+			if (!packet.isSnapshot() && packet.getVersion() <= replicaState.version) return new LongPacket(replicaState.version);
+
+			final Map<K, V> base = packet.isSnapshot() ? new HashMap<>() : replicaState.versions.get(packet.getBaseVersion());
+			if (base == null) {
+				final LongPacket reply = new LongPacket(replicaState.version);
+				reply.setPacketStatus(PacketStatus.PRECONDITION_FAILED);
+				return reply;
+			}
+
+			final Map<K, V> state = new HashMap<>(base);
+			packet.applyTo(state);
+
+			// Versions before the base are never sent against again, the sender acknowledged a later one
+			if (packet.isSnapshot()) replicaState.versions.clear();
+			else replicaState.versions.headMap(packet.getBaseVersion(), false).clear();
+
+			replicaState.versions.put(packet.getVersion(), state);
+			while (replicaState.versions.size() > this.maxVersions) replicaState.versions.pollFirstEntry();
+
+			replicaState.version = packet.getVersion();
+			replicaState.state = Collections.unmodifiableMap(state);
+			return new LongPacket(replicaState.version);
+		}
+	}
+
+	/**
+	 * Get the latest state of a channel
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @return an unmodifiable view of the map, empty if nothing was received yet
+	 */
+	public @NotNull Map<K, V> getState(@NotNull String syncChannel) {
+		final ReplicaState<K, V> replicaState = this.states.get(syncChannel);
+		if (replicaState == null) return Collections.emptyMap();
+
+		synchronized (replicaState) {
+			return replicaState.state;
+		}
+	}
+
+	/**
+	 * Get the latest version of a channel
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @return the version, {@code 0} if nothing was received yet
+	 */
+	public long getVersion(@NotNull String syncChannel) {
+		final ReplicaState<K, V> replicaState = this.states.get(syncChannel);
+		if (replicaState == null) return 0;
+
+		synchronized (replicaState) {
+			return replicaState.version;
+		}
+	}
+
+	/**
+	 * Forget a channel, the next packet of the channel has to be a snapshot
+	 *
+	 * @param syncChannel the name of the synced map
+	 */
+	public void remove(@NotNull String syncChannel) {
+		this.states.remove(syncChannel);
+	}
+
+	private static final class ReplicaState<K, V> {
+		private final TreeMap<Long, Map<K, V>> versions = new TreeMap<>(); // the recent versions, by version
+		private Map<K, V> state = Collections.emptyMap();
+		private long version;
+	}
+}
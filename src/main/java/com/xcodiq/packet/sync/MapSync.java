@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.sync;
+
+import com.xcodiq.packet.PacketStatus;
+import com.xcodiq.packet.type.DeltaMapPacket;
+import com.xcodiq.packet.type.LongPacket;
+import com.xcodiq.packet.type.MapPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sending side of a synced map. Every change of the map is sent as the entries that changed against the last
+ * version a receiver acknowledged, so a lost or unacknowledged packet is covered by the next one. A full snapshot is
+ * sent on the first send of a channel, and again when a receiver replies that it is out of sync.
+ * <p>
+ * Send the packets in a record replying with a {@link LongPacket}, as created by {@link MapReplica#apply(DeltaMapPacket)},
+ * and pass the replies to {@link #acknowledge(String, LongPacket)}, also the ones with an error status since they tell
+ * the receiver is out of sync (they reach the reply consumer of the record). Every channel should have a single receiver,
+ * use a routing key to keep a channel on the same node.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class MapSync<K, V> {
+
+	private static final int DEFAULT_MAX_UNACKNOWLEDGED = 16;
+
+	private final Map<String, SyncState<K, V>> states = new ConcurrentHashMap<>();
+	private final int maxUnacknowledged;
+
+	/**
+	 * Constructs a new map sync
+	 *
+	 * @param maxUnacknowledged the number of sent versions kept until they are acknowledged, older versions are
+	 *                          forgotten and acknowledging them has no effect
+	 */
+	public MapSync(int maxUnacknowledged) {
+		if (maxUnacknowledged < 1) throw new IllegalArgumentException("The maximum of unacknowledged versions must be at least 1");
+		this.maxUnacknowledged = maxUnacknowledged;
+	}
+
+	public MapSync() {
+		this(DEFAULT_MAX_UNACKNOWLEDGED);
+	}
+
+	/**
+	 * Create the packet to send the current state of a map with
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @param state       the current state of the map, it is copied
+	 * @return a snapshot if the channel has no acknowledged version, otherwise the changes since that version
+	 */
+	public @NotNull DeltaMapPacket<K, V> diff(@NotNull String syncChannel, @NotNull Map<K, V> state) {
+		final SyncState<K, V> syncState = this.states.computeIfAbsent(syncChannel, key -> new SyncState<>());
+
+		synchronized (syncState) {
+			final long version = ++syncState.version;
+			final Map<K, V> copy = new HashMap<>(state);
+
+			syncState.sent.put(version, copy);
+			while (syncState.sent.size() > this.maxUnacknowledged) syncState.sent.pollFirstEntry();
+
+			final Map<K, V> base = syncState.acknowledged;
+			if (base == null) return DeltaMapPacket.snapshot(syncChannel, version, copy);
+
+			final Map<K, V> changed = new HashMap<>();
+			copy.forEach((key, value) -> {
+				if (!base.containsKey(key) || !Objects.equals(base.get(key), value)) changed.put(key, value);
+			});
+
+			final List<K> removed = new ArrayList<>();
+			for (K key : base.keySet()) if (!copy.containsKey(key)) removed.add(key);
+
+			return DeltaMapPacket.delta(syncChannel, syncState.acknowledgedVersion, version, changed, removed);
+		}
+	}
+
+	/**
+	 * Create the packet to send the current payload of a map packet with
+	 *
+	 * @see #diff(String, Map)
+	 */
+	public @NotNull DeltaMapPacket<K, V> diff(@NotNull String syncChannel, @NotNull MapPacket<K, V> packet) {
+		return this.diff(syncChannel, packet.getPayload());
+	}
+
+	/**
+	 * Handle the reply of a receiver, the next packet of the channel is sent against the acknowledged version,
+	 * or as a snapshot if the receiver is out of sync
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @param reply       the reply of the receiver
+	 */
+	public void acknowledge(@NotNull String syncChannel, @NotNull LongPacket reply) {
+		if (reply.getPacketStatus() == PacketStatus.PRECONDITION_FAILED) {
+			this.resync(syncChannel);
+			return;
+		}
+
+		final SyncState<K, V> syncState = this.states.get(syncChannel);
+		if (syncState == null || reply.getPayload() == null) return;
+
+		synchronized (syncState) {
+			final long version = reply.getPayload();
+			final Map<K, V> acknowledged = syncState.sent.get(version);
+			if (acknowledged == null || version <= syncState.acknowledgedVersion) return;
+
+			syncState.acknowledged = acknowledged;
+			syncState.acknowledgedVersion = version;
+			syncState.sent.headMap(version, false).clear();
+		}
+	}
+
+	/**
+	 * Send the next packet of a channel as a full snapshot
+	 *
+	 * @param syncChannel the name of the synced map
+	 */
+	public void resync(@NotNull String syncChannel) {
+		final SyncState<K, V> syncState = this.states.get(syncChannel);
+		if (syncState == null) return;
+
+		synchronized (syncState) {
+			syncState.acknowledged = null;
+			syncState.acknowledgedVersion = 0;
+		}
+	}
+
+	/**
+	 * Forget a channel, e.g. when its receiver left
+	 *
+	 * @param syncChannel the name of the synced map
+	 */
+	public void remove(@NotNull String syncChannel) {
+		this.states.remove(syncChannel);
+	}
+
+	private static final class SyncState<K, V> {
+		private final TreeMap<Long, Map<K, V>> sent = new TreeMap<>(); // the sent versions that are not acknowledged yet
+		private long version;
+
+		private Map<K, V> acknowledged; // the last acknowledged version, null if the next packet is a snapshot
+		private long acknowledgedVersion;
+	}
+}
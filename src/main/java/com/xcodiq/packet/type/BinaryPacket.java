@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.BinaryPayload;
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A packet carrying raw bytes, e.g. a serialized world chunk or an image. The bytes are framed as they are,
+ * and a received binary packet is a read-only view of the received message instead of a copy.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class BinaryPacket extends RedisPacket implements BinaryPayload {
+
+	private transient ByteBuffer payload = ByteBuffer.allocate(0); // no static constant, static fields of packets are serialized
+
+	protected BinaryPacket() {
+		// used when the packet is deserialized, the payload is read after its fields
+	}
+
+	public BinaryPacket(byte @NotNull [] payload) {
+		this(ByteBuffer.wrap(payload));
+	}
+
+	/**
+	 * Constructs a new binary packet from the remaining bytes of a buffer, the bytes are not copied
+	 *
+	 * @param payload the buffer holding the payload
+	 */
+	public BinaryPacket(@NotNull ByteBuffer payload) {
+		this.payload = payload.slice();
+	}
+
+	/**
+	 * Get a read-only view of the payload
+	 *
+	 * @return the payload, positioned at its first byte
+	 */
+	public ByteBuffer getPayload() {
+		return this.payload.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Copy the payload to a new byte array
+	 *
+	 * @return a copy of the payload
+	 */
+	public byte[] toByteArray() {
+		final byte[] bytes = new byte[this.payload.remaining()];
+		this.payload.duplicate().get(bytes);
+		return bytes;
+	}
+
+	public int getSize() {
+		return this.payload.remaining();
+	}
+
+	@Override
+	public ByteBuffer writePayload() {
+		return this.payload.duplicate();
+	}
+
+	@Override
+	public void readPayload(@NotNull ByteBuffer payload) {
+		this.payload = payload;
+	}
+}
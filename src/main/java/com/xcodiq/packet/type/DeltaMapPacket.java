@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A packet carrying a version of a map kept in sync between nodes. It is either a full snapshot of the map,
+ * or the entries that changed and the keys that were removed since the base version.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @see com.xcodiq.packet.sync.MapSync
+ * @see com.xcodiq.packet.sync.MapReplica
+ * @since 1.0
+ */
+public class DeltaMapPacket<K, V> extends RedisPacket {
+
+	private final String syncChannel; // the name of the synced map
+	private final boolean snapshot;
+	private final long baseVersion; // the version the changes apply to, 0 for a snapshot
+	private final long version;
+
+	private final Map<K, V> changed;
+	private final Map<K, Boolean> removed; // the removed keys as map keys, so they are deserialized the same way as the changed keys
+
+	private DeltaMapPacket(String syncChannel, boolean snapshot, long baseVersion, long version, Map<K, V> changed,
+	                       Collection<K> removed) {
+		this.syncChannel = syncChannel;
+		this.snapshot = snapshot;
+		this.baseVersion = baseVersion;
+		this.version = version;
+		this.changed = changed;
+		this.removed = new HashMap<>();
+		for (K key : removed) this.removed.put(key, true);
+	}
+
+	/**
+	 * Create a full snapshot of a map
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @param version     the version of the map
+	 * @param entries     all entries of the map
+	 * @return a new snapshot packet
+	 */
+	@Contract("_, _, _ -> new")
+	public static <K, V> @NotNull DeltaMapPacket<K, V> snapshot(@NotNull String syncChannel, long version, @NotNull Map<K, V> entries) {
+		return new DeltaMapPacket<>(syncChannel, true, 0, version, new HashMap<>(entries), Set.of());
+	}
+
+	/**
+	 * Create the changes of a map since a base version
+	 *
+	 * @param syncChannel the name of the synced map
+	 * @param baseVersion the version the changes apply to
+	 * @param version     the version of the map after the changes
+	 * @param changed     the entries that were added or changed
+	 * @param removed     the keys that were removed
+	 * @return a new delta packet
+	 */
+	@Contract("_, _, _, _, _ -> new")
+	public static <K, V> @NotNull DeltaMapPacket<K, V> delta(@NotNull String syncChannel, long baseVersion, long version,
+	                                                         @NotNull Map<K, V> changed, @NotNull Collection<K> removed) {
+		return new DeltaMapPacket<>(syncChannel, false, baseVersion, version, new HashMap<>(changed), removed);
+	}
+
+	/**
+	 * Apply the packet to a map, replacing its entries if the packet is a snapshot
+	 *
+	 * @param map the map at the base version
+	 */
+	public void applyTo(@NotNull Map<K, V> map) {
+		if (this.snapshot) map.clear();
+		this.removed.keySet().forEach(map::remove);
+		map.putAll(this.changed);
+	}
+
+	public String getSyncChannel() {
+		return this.syncChannel;
+	}
+
+	public boolean isSnapshot() {
+		return this.snapshot;
+	}
+
+	public long getBaseVersion() {
+		return this.baseVersion;
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	public Map<K, V> getChanged() {
+		return this.changed;
+	}
+
+	public Set<K> getRemoved() {
+		return this.removed.keySet();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.BinaryPayload;
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A packet carrying a primitive double array, packed as a binary payload instead of a json array of boxed values
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class DoubleArrayPacket extends RedisPacket implements BinaryPayload {
+
+	private transient double[] payload;
+
+	protected DoubleArrayPacket() {
+		// used when the packet is deserialized, the payload is read after its fields
+		this(new double[0]);
+	}
+
+	/**
+	 * Constructs a new double array packet, the array is not copied
+	 *
+	 * @param payload the array to send
+	 */
+	public DoubleArrayPacket(double @NotNull [] payload) {
+		this.payload = payload;
+	}
+
+	public double[] getPayload() {
+		return this.payload;
+	}
+
+	public double getValue(int index) {
+		return this.payload[index];
+	}
+
+	public int size() {
+		return this.payload.length;
+	}
+
+	@Override
+	public ByteBuffer writePayload() {
+		return PackedArrays.encodeDoubles(this.payload);
+	}
+
+	@Override
+	public void readPayload(@NotNull ByteBuffer payload) {
+		this.payload = PackedArrays.decodeDoubles(payload);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.BinaryPayload;
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A packet carrying a primitive int array, encoded as a binary payload instead of a json array of boxed values
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class IntArrayPacket extends RedisPacket implements BinaryPayload {
+
+	private final ArrayEncoding encoding;
+
+	private transient int[] payload;
+
+	protected IntArrayPacket() {
+		// used when the packet is deserialized, the payload is read after its fields
+		this(new int[0]);
+	}
+
+	public IntArrayPacket(int @NotNull [] payload) {
+		this(payload, ArrayEncoding.PACKED);
+	}
+
+	/**
+	 * Constructs a new int array packet, the array is not copied
+	 *
+	 * @param payload  the array to send
+	 * @param encoding the encoding of the array, {@link ArrayEncoding#DELTA} for sorted values such as ids
+	 */
+	public IntArrayPacket(int @NotNull [] payload, @NotNull ArrayEncoding encoding) {
+		this.payload = payload;
+		this.encoding = encoding;
+	}
+
+	public int[] getPayload() {
+		return this.payload;
+	}
+
+	public int getValue(int index) {
+		return this.payload[index];
+	}
+
+	public int size() {
+		return this.payload.length;
+	}
+
+	public ArrayEncoding getEncoding() {
+		return this.encoding;
+	}
+
+	@Override
+	public ByteBuffer writePayload() {
+		return PackedArrays.encodeInts(this.payload, this.encoding);
+	}
+
+	@Override
+	public void readPayload(@NotNull ByteBuffer payload) {
+		this.payload = PackedArrays.decodeInts(payload, this.encoding);
+	}
+}
@@ -40,16 +40,16 @@ public class ListPacket<T> extends GenericPacket<List<T>> {
 	}
 
 	public ListPacket<T> add(T item) {
-		this.payload.add(item);
+		this.getPayload().add(item);
 		return this;
 	}
 
 	public T getValue(int index) {
-		return this.payload.get(index);
+		return this.getPayload().get(index);
 	}
 
 	public T getValue(int index, T defValue) {
-		final T value = this.payload.get(index);
+		final T value = this.getPayload().get(index);
 		return value == null ? defValue : value;
 	}
 }
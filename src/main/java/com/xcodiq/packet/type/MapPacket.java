@@ -40,19 +40,19 @@ public class MapPacket<K, V> extends GenericPacket<Map<K, V>> {
 	}
 
 	public MapPacket<K, V> add(K key, V value) {
-		this.payload.put(key, value);
+		this.getPayload().put(key, value);
 		return this;
 	}
 
 	public void setValue(K key, V value) {
-		this.payload.put(key, value);
+		this.getPayload().put(key, value);
 	}
 
 	public V getValue(K key) {
-		return this.payload.get(key);
+		return this.getPayload().get(key);
 	}
 
 	public V getValue(K key, V defValue) {
-		return this.payload.getOrDefault(key, defValue);
+		return this.getPayload().getOrDefault(key, defValue);
 	}
 }
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes primitive arrays to binary payloads: the length of the array as an int, followed by its values
+ * in the {@link ArrayEncoding} of the packet. Varints are zigzag encoded, so negative values stay small.
+ * Deltas wrap around on overflow, which is undone when they are added up again.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class PackedArrays {
+
+	private PackedArrays() {
+	}
+
+	static ByteBuffer encodeInts(int[] values, ArrayEncoding encoding) {
+		if (encoding == ArrayEncoding.PACKED) {
+			final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + values.length * Integer.BYTES).putInt(values.length);
+			buffer.asIntBuffer().put(values);
+			return buffer.clear();
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + values.length * 5).putInt(values.length);
+		int previous = 0;
+		for (int value : values) {
+			final int encoded = encoding == ArrayEncoding.DELTA ? value - previous : value;
+			writeVarLong(buffer, Integer.toUnsignedLong((encoded << 1) ^ (encoded >> 31)));
+			previous = value;
+		}
+		return buffer.flip();
+	}
+
+	static int[] decodeInts(ByteBuffer buffer, ArrayEncoding encoding) {
+		final int[] values = new int[readLength(buffer, encoding == ArrayEncoding.PACKED ? Integer.BYTES : 1)];
+		if (encoding == ArrayEncoding.PACKED) {
+			buffer.asIntBuffer().get(values);
+			return values;
+		}
+
+		int previous = 0;
+		for (int i = 0; i < values.length; i++) {
+			final int zigzag = (int) readVarLong(buffer);
+			final int decoded = (zigzag >>> 1) ^ -(zigzag & 1);
+			values[i] = encoding == ArrayEncoding.DELTA ? previous += decoded : decoded;
+		}
+		return values;
+	}
+
+	static ByteBuffer encodeLongs(long[] values, ArrayEncoding encoding) {
+		if (encoding == ArrayEncoding.PACKED) {
+			final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + values.length * Long.BYTES).putInt(values.length);
+			buffer.asLongBuffer().put(values);
+			return buffer.clear();
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + values.length * 10).putInt(values.length);
+		long previous = 0;
+		for (long value : values) {
+			final long encoded = encoding == ArrayEncoding.DELTA ? value - previous : value;
+			writeVarLong(buffer, (encoded << 1) ^ (encoded >> 63));
+			previous = value;
+		}
+		return buffer.flip();
+	}
+
+	static long[] decodeLongs(ByteBuffer buffer, ArrayEncoding encoding) {
+		final long[] values = new long[readLength(buffer, encoding == ArrayEncoding.PACKED ? Long.BYTES : 1)];
+		if (encoding == ArrayEncoding.PACKED) {
+			buffer.asLongBuffer().get(values);
+			return values;
+		}
+
+		long previous = 0;
+		for (int i = 0; i < values.length; i++) {
+			final long zigzag = readVarLong(buffer);
+			final long decoded = (zigzag >>> 1) ^ -(zigzag & 1);
+			values[i] = encoding == ArrayEncoding.DELTA ? previous += decoded : decoded;
+		}
+		return values;
+	}
+
+	static ByteBuffer encodeDoubles(double[] values) {
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + values.length * Double.BYTES).putInt(values.length);
+		buffer.asDoubleBuffer().put(values);
+		return buffer.clear();
+	}
+
+	static double[] decodeDoubles(ByteBuffer buffer) {
+		final double[] values = new double[readLength(buffer, Double.BYTES)];
+		buffer.asDoubleBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Read the length of an array, making sure the rest of the payload can hold that many values before it is allocated
+	 *
+	 * @param buffer   the payload to read the length from
+	 * @param minBytes the minimum amount of bytes a single value takes up
+	 * @return the length of the array
+	 * @throws IllegalArgumentException if the length is negative or larger than the rest of the payload allows
+	 */
+	private static int readLength(ByteBuffer buffer, int minBytes) {
+		return checkLength(buffer.getInt(), buffer, minBytes);
+	}
+
+	/**
+	 * Make sure the rest of a payload can hold an amount of values, before an array of them is allocated
+	 *
+	 * @param length   the amount of values
+	 * @param buffer   the payload the values are read from
+	 * @param minBytes the minimum amount of bytes a single value takes up
+	 * @return the amount of values
+	 * @throws IllegalArgumentException if the amount is negative or larger than the rest of the payload allows
+	 */
+	static int checkLength(long length, ByteBuffer buffer, int minBytes) {
+		if (length < 0 || length > buffer.remaining() / minBytes) {
+			throw new IllegalArgumentException("Invalid array length " + length + " for a payload of " + buffer.remaining() + " bytes");
+		}
+		return (int) length;
+	}
+
+	private static void writeVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	static long readVarLong(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			if (shift >= Long.SIZE) throw new IllegalArgumentException("Invalid varint, it is longer than 10 bytes");
+
+			final byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+	}
+}
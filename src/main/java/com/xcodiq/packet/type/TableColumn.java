@@ -0,0 +1,374 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A column of a {@link TablePacket}, holding its values in a primitive array of its type
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+abstract class TableColumn {
+
+	private static final int DICTIONARY_RATIO = 4; // a string column is dictionary encoded with at most one distinct value per this many rows
+
+	protected int size;
+
+	abstract ColumnType getType();
+
+	abstract void add(Object value);
+
+	abstract void trim();
+
+	abstract void write(DataOutputStream out) throws IOException;
+
+	int size() {
+		return this.size;
+	}
+
+	static TableColumn create(ColumnType type, int capacity) {
+		switch (type) {
+			case INT:
+				return new IntColumn(new int[capacity], 0);
+			case LONG:
+				return new LongColumn(new long[capacity], 0);
+			case DOUBLE:
+				return new DoubleColumn(new double[capacity], 0);
+			case BOOLEAN:
+				return new BooleanColumn(new boolean[capacity], 0);
+			default:
+				return new StringColumn(new String[capacity], 0);
+		}
+	}
+
+	/**
+	 * Read a column from the payload of a table
+	 *
+	 * @throws IllegalArgumentException if the payload can not hold the amount of rows, or holds an invalid value
+	 */
+	static TableColumn read(ColumnType type, int rows, ByteBuffer in) {
+		switch (type) {
+			case INT: {
+				final int[] values = new int[PackedArrays.checkLength(rows, in, Integer.BYTES)];
+				for (int i = 0; i < rows; i++) values[i] = in.getInt();
+				return new IntColumn(values, rows);
+			}
+			case LONG: {
+				final long[] values = new long[PackedArrays.checkLength(rows, in, Long.BYTES)];
+				for (int i = 0; i < rows; i++) values[i] = in.getLong();
+				return new LongColumn(values, rows);
+			}
+			case DOUBLE: {
+				final double[] values = new double[PackedArrays.checkLength(rows, in, Double.BYTES)];
+				for (int i = 0; i < rows; i++) values[i] = in.getDouble();
+				return new DoubleColumn(values, rows);
+			}
+			case BOOLEAN: {
+				PackedArrays.checkLength((rows + 7L) / 8, in, 1);
+				final boolean[] values = new boolean[rows];
+				for (int i = 0; i < rows; i += 8) {
+					final byte bits = in.get();
+					for (int bit = 0; bit < 8 && i + bit < rows; bit++) values[i + bit] = (bits & (1 << bit)) != 0;
+				}
+				return new BooleanColumn(values, rows);
+			}
+			default:
+				return StringColumn.read(rows, in);
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Write a nullable string as a varint of its length plus one, {@code 0} being null, followed by its bytes
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		final long encodedLength = PackedArrays.readVarLong(in);
+		if (encodedLength == 0) return null;
+		final int length = PackedArrays.checkLength(encodedLength - 1, in, 1);
+
+		final String value;
+		if (in.hasArray()) {
+			value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+			in.position(in.position() + length);
+		} else {
+			final byte[] bytes = new byte[length];
+			in.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+
+	static final class IntColumn extends TableColumn {
+
+		int[] values;
+
+		IntColumn(int[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		ColumnType getType() {
+			return ColumnType.INT;
+		}
+
+		@Override
+		void add(Object value) {
+			if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(16, this.size * 2));
+			this.values[this.size++] = ((Number) value).intValue();
+		}
+
+		@Override
+		void trim() {
+			if (this.values.length != this.size) this.values = Arrays.copyOf(this.values, this.size);
+		}
+
+		@Override
+		void write(DataOutputStream out) throws IOException {
+			for (int i = 0; i < this.size; i++) out.writeInt(this.values[i]);
+		}
+	}
+
+	static final class LongColumn extends TableColumn {
+
+		long[] values;
+
+		LongColumn(long[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		ColumnType getType() {
+			return ColumnType.LONG;
+		}
+
+		@Override
+		void add(Object value) {
+			if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(16, this.size * 2));
+			this.values[this.size++] = ((Number) value).longValue();
+		}
+
+		@Override
+		void trim() {
+			if (this.values.length != this.size) this.values = Arrays.copyOf(this.values, this.size);
+		}
+
+		@Override
+		void write(DataOutputStream out) throws IOException {
+			for (int i = 0; i < this.size; i++) out.writeLong(this.values[i]);
+		}
+	}
+
+	static final class DoubleColumn extends TableColumn {
+
+		double[] values;
+
+		DoubleColumn(double[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		ColumnType getType() {
+			return ColumnType.DOUBLE;
+		}
+
+		@Override
+		void add(Object value) {
+			if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(16, this.size * 2));
+			this.values[this.size++] = ((Number) value).doubleValue();
+		}
+
+		@Override
+		void trim() {
+			if (this.values.length != this.size) this.values = Arrays.copyOf(this.values, this.size);
+		}
+
+		@Override
+		void write(DataOutputStream out) throws IOException {
+			for (int i = 0; i < this.size; i++) out.writeDouble(this.values[i]);
+		}
+	}
+
+	static final class BooleanColumn extends TableColumn {
+
+		boolean[] values;
+
+		BooleanColumn(boolean[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		ColumnType getType() {
+			return ColumnType.BOOLEAN;
+		}
+
+		@Override
+		void add(Object value) {
+			if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(16, this.size * 2));
+			this.values[this.size++] = (Boolean) value;
+		}
+
+		@Override
+		void trim() {
+			if (this.values.length != this.size) this.values = Arrays.copyOf(this.values, this.size);
+		}
+
+		@Override
+		void write(DataOutputStream out) throws IOException {
+			// Eight values per byte
+			for (int i = 0; i < this.size; i += 8) {
+				int bits = 0;
+				for (int bit = 0; bit < 8 && i + bit < this.size; bit++) if (this.values[i + bit]) bits |= 1 << bit;
+				out.writeByte(bits);
+			}
+		}
+	}
+
+	/**
+	 * A string column, decoded dictionary columns keep their dictionary and refer to it by index,
+	 * so a repeated value is only a single string instance
+	 */
+	static final class StringColumn extends TableColumn {
+
+		String[] dictionary; // null if the column is not dictionary encoded
+		int[] indices; // the dictionary index of every row, null if the column is not dictionary encoded
+		String[] values; // the value of every row, null if the column is dictionary encoded
+
+		StringColumn(String[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		ColumnType getType() {
+			return ColumnType.STRING;
+		}
+
+		String get(int row) {
+			return this.values != null ? this.values[row] : this.dictionary[this.indices[row]];
+		}
+
+		String[] toArray() {
+			if (this.values != null) return this.values;
+
+			final String[] values = new String[this.size];
+			for (int i = 0; i < this.size; i++) values[i] = this.dictionary[this.indices[i]];
+			return values;
+		}
+
+		@Override
+		void add(Object value) {
+			if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(16, this.size * 2));
+			this.values[this.size++] = (String) value;
+		}
+
+		@Override
+		void trim() {
+			if (this.values != null && this.values.length != this.size) this.values = Arrays.copyOf(this.values, this.size);
+		}
+
+		@Override
+		void write(DataOutputStream out) throws IOException {
+			final String[] values = this.toArray();
+
+			// Build a dictionary, giving up once the column has too many distinct values for it to pay off
+			final int maxDictionarySize = this.size / DICTIONARY_RATIO;
+			final Map<String, Integer> dictionary = new HashMap<>();
+			for (int i = 0; i < this.size && dictionary.size() <= maxDictionarySize; i++) {
+				dictionary.putIfAbsent(values[i], dictionary.size());
+			}
+
+			if (this.size == 0 || dictionary.size() > maxDictionarySize) {
+				out.writeByte(0);
+				for (int i = 0; i < this.size; i++) writeString(out, values[i]);
+				return;
+			}
+
+			out.writeByte(1);
+			final String[] entries = new String[dictionary.size()];
+			dictionary.forEach((value, index) -> entries[index] = value);
+
+			writeVarInt(out, entries.length);
+			for (String entry : entries) writeString(out, entry);
+			for (int i = 0; i < this.size; i++) writeVarInt(out, dictionary.get(values[i]));
+		}
+
+		static StringColumn read(int rows, ByteBuffer in) {
+			final boolean dictionaryEncoded = in.get() == 1;
+			if (!dictionaryEncoded) {
+				final String[] values = new String[PackedArrays.checkLength(rows, in, 1)];
+				for (int i = 0; i < rows; i++) values[i] = readString(in);
+				return new StringColumn(values, rows);
+			}
+
+			final String[] dictionary = new String[PackedArrays.checkLength(PackedArrays.readVarLong(in), in, 1)];
+			for (int i = 0; i < dictionary.length; i++) dictionary[i] = readString(in);
+
+			final int[] indices = new int[PackedArrays.checkLength(rows, in, 1)];
+			for (int i = 0; i < rows; i++) {
+				final long index = PackedArrays.readVarLong(in);
+				if (index < 0 || index >= dictionary.length) {
+					throw new IllegalArgumentException("Invalid dictionary index " + index + " for a dictionary of " + dictionary.length + " values");
+				}
+				indices[i] = (int) index;
+			}
+
+			final StringColumn column = new StringColumn(null, rows);
+			column.dictionary = dictionary;
+			column.indices = indices;
+			return column;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.BinaryPayload;
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A packet carrying a table of rows. The schema (column names and types) is sent as the fields of the packet,
+ * while the values are sent column by column as a binary payload, every column in a primitive array of its type.
+ * String columns with few distinct values are dictionary encoded.
+ * <p>
+ * Values are accessed by row and column index, or a whole column at once, without creating an object per row.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class TablePacket extends RedisPacket implements BinaryPayload {
+
+	private final String[] columnNames;
+	private final ColumnType[] columnTypes;
+	private final int rowCount;
+
+	private transient TableColumn[] columns;
+
+	protected TablePacket() {
+		// used when the packet is deserialized, the columns are read after the schema
+		this(new String[0], new ColumnType[0], new TableColumn[0], 0);
+	}
+
+	private TablePacket(String[] columnNames, ColumnType[] columnTypes, TableColumn[] columns, int rowCount) {
+		this.columnNames = columnNames;
+		this.columnTypes = columnTypes;
+		this.columns = columns;
+		this.rowCount = rowCount;
+	}
+
+	@Contract(" -> new")
+	public static @NotNull Builder builder() {
+		return new Builder();
+	}
+
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	public int getColumnCount() {
+		return this.columnNames.length;
+	}
+
+	public String getColumnName(int column) {
+		return this.columnNames[column];
+	}
+
+	public ColumnType getColumnType(int column) {
+		return this.columnTypes[column];
+	}
+
+	/**
+	 * Get the index of a column by its name
+	 *
+	 * @param columnName the name of the column
+	 * @return the index of the column, or {@code -1} if there is no such column
+	 */
+	public int getColumnIndex(String columnName) {
+		for (int i = 0; i < this.columnNames.length; i++) if (this.columnNames[i].equals(columnName)) return i;
+		return -1;
+	}
+
+	public int getInt(int row, int column) {
+		return ((TableColumn.IntColumn) this.column(column, ColumnType.INT)).values[this.checkRow(row)];
+	}
+
+	public long getLong(int row, int column) {
+		return ((TableColumn.LongColumn) this.column(column, ColumnType.LONG)).values[this.checkRow(row)];
+	}
+
+	public double getDouble(int row, int column) {
+		return ((TableColumn.DoubleColumn) this.column(column, ColumnType.DOUBLE)).values[this.checkRow(row)];
+	}
+
+	public boolean getBoolean(int row, int column) {
+		return ((TableColumn.BooleanColumn) this.column(column, ColumnType.BOOLEAN)).values[this.checkRow(row)];
+	}
+
+	public String getString(int row, int column) {
+		return ((TableColumn.StringColumn) this.column(column, ColumnType.STRING)).get(this.checkRow(row));
+	}
+
+	/**
+	 * Get all values of an int column, the returned array is the column itself and should not be modified
+	 *
+	 * @param column the index of the column
+	 * @return the values of the column
+	 */
+	public int[] getIntColumn(int column) {
+		return ((TableColumn.IntColumn) this.column(column, ColumnType.INT)).values;
+	}
+
+	/**
+	 * Get all values of a long column, the returned array is the column itself and should not be modified
+	 *
+	 * @param column the index of the column
+	 * @return the values of the column
+	 */
+	public long[] getLongColumn(int column) {
+		return ((TableColumn.LongColumn) this.column(column, ColumnType.LONG)).values;
+	}
+
+	/**
+	 * Get all values of a double column, the returned array is the column itself and should not be modified
+	 *
+	 * @param column the index of the column
+	 * @return the values of the column
+	 */
+	public double[] getDoubleColumn(int column) {
+		return ((TableColumn.DoubleColumn) this.column(column, ColumnType.DOUBLE)).values;
+	}
+
+	/**
+	 * Get all values of a boolean column, the returned array is the column itself and should not be modified
+	 *
+	 * @param column the index of the column
+	 * @return the values of the column
+	 */
+	public boolean[] getBooleanColumn(int column) {
+		return ((TableColumn.BooleanColumn) this.column(column, ColumnType.BOOLEAN)).values;
+	}
+
+	/**
+	 * Get all values of a string column, rows sharing a dictionary value share the same string instance
+	 *
+	 * @param column the index of the column
+	 * @return the values of the column
+	 */
+	public String[] getStringColumn(int column) {
+		return ((TableColumn.StringColumn) this.column(column, ColumnType.STRING)).toArray();
+	}
+
+	private TableColumn column(int column, ColumnType columnType) {
+		if (this.columnTypes[column] != columnType) throw new IllegalArgumentException(
+				"Column '" + this.columnNames[column] + "' is a " + this.columnTypes[column] + " column, not a " + columnType + " column");
+		return this.columns[column];
+	}
+
+	private int checkRow(int row) {
+		if (row < 0 || row >= this.rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + this.rowCount + " rows");
+		return row;
+	}
+
+	@Override
+	public ByteBuffer writePayload() {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			for (TableColumn column : this.columns) column.write(out);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	@Override
+	public void readPayload(@NotNull ByteBuffer payload) {
+		// The schema comes from the fields of the packet, make sure it describes a table before reading its columns
+		if (this.columnNames == null || this.columnTypes == null) {
+			throw new IllegalArgumentException("Invalid table schema, the column names or types are missing");
+		}
+		if (this.columnNames.length != this.columnTypes.length || this.rowCount < 0) {
+			throw new IllegalArgumentException("Invalid table schema of " + this.columnNames.length + " column names, "
+					+ this.columnTypes.length + " column types and " + this.rowCount + " rows");
+		}
+		for (ColumnType columnType : this.columnTypes) {
+			if (columnType == null) throw new IllegalArgumentException("Invalid table schema, a column has no type");
+		}
+
+		final TableColumn[] columns = new TableColumn[this.columnTypes.length];
+		for (int i = 0; i < columns.length; i++) columns[i] = TableColumn.read(this.columnTypes[i], this.rowCount, payload);
+		this.columns = columns;
+	}
+
+	/**
+	 * Builds a table packet, row by row or column by column
+	 */
+	public static final class Builder {
+
+		private final List<String> columnNames = new ArrayList<>();
+		private final List<TableColumn> columns = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Add an empty column, to be filled by {@link Builder#row(Object...)}
+		 *
+		 * @param columnName the name of the column
+		 * @param columnType the type of the column
+		 * @return the builder instance, for chaining
+		 */
+		public Builder column(@NotNull String columnName, @NotNull ColumnType columnType) {
+			return this.add(columnName, TableColumn.create(columnType, 16));
+		}
+
+		public Builder intColumn(@NotNull String columnName, int @NotNull [] values) {
+			return this.add(columnName, new TableColumn.IntColumn(values, values.length));
+		}
+
+		public Builder longColumn(@NotNull String columnName, long @NotNull [] values) {
+			return this.add(columnName, new TableColumn.LongColumn(values, values.length));
+		}
+
+		public Builder doubleColumn(@NotNull String columnName, double @NotNull [] values) {
+			return this.add(columnName, new TableColumn.DoubleColumn(values, values.length));
+		}
+
+		public Builder booleanColumn(@NotNull String columnName, boolean @NotNull [] values) {
+			return this.add(columnName, new TableColumn.BooleanColumn(values, values.length));
+		}
+
+		public Builder stringColumn(@NotNull String columnName, String @NotNull [] values) {
+			return this.add(columnName, new TableColumn.StringColumn(values, values.length));
+		}
+
+		/**
+		 * Add a row, holding a value for every column in the order they have been added
+		 *
+		 * @param values the values of the row, numeric and boolean values can not be null
+		 * @return the builder instance, for chaining
+		 */
+		public Builder row(Object @NotNull ... values) {
+			if (values.length != this.columns.size()) throw new IllegalArgumentException(
+					"A row needs " + this.columns.size() + " values, but " + values.length + " were given");
+
+			for (int i = 0; i < values.length; i++) this.columns.get(i).add(values[i]);
+			return this;
+		}
+
+		private Builder add(String columnName, TableColumn column) {
+			if (this.columnNames.contains(columnName)) throw new IllegalArgumentException("Column '" + columnName + "' already exists");
+
+			this.columnNames.add(columnName);
+			this.columns.add(column);
+			return this;
+		}
+
+		/**
+		 * Build the table packet
+		 *
+		 * @return the table packet
+		 * @throws IllegalStateException if the columns do not have the same amount of rows
+		 */
+		public TablePacket build() {
+			final int rowCount = this.columns.isEmpty() ? 0 : this.columns.get(0).size();
+			final ColumnType[] columnTypes = new ColumnType[this.columns.size()];
+			for (int i = 0; i < columnTypes.length; i++) {
+				final TableColumn column = this.columns.get(i);
+				if (column.size() != rowCount) throw new IllegalStateException("Column '" + this.columnNames.get(i)
+						+ "' has " + column.size() + " rows, while the table has " + rowCount + " rows");
+
+				column.trim();
+				columnTypes[i] = column.getType();
+			}
+
+			return new TablePacket(this.columnNames.toArray(new String[0]), columnTypes,
+					this.columns.toArray(new TableColumn[0]), rowCount);
+		}
+	}
+}
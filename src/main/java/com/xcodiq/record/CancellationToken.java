@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A cancellation token is cancelled once the sender of a record gave up on it,
+ * handlers can check it to stop working on a record nobody is waiting for anymore.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @see com.xcodiq.packet.RedisPacket#getCancellationToken()
+ * @since 1.0
+ */
+public final class CancellationToken {
+
+	private final List<Runnable> callbacks = new ArrayList<>();
+	private volatile boolean cancelled;
+
+	/**
+	 * Check if the token has been cancelled
+	 *
+	 * @return {@code true} if the token has been cancelled, {@code false} otherwise
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Throw an exception if the token has been cancelled, so a handler can bail out in one line
+	 *
+	 * @throws CancellationException if the token has been cancelled
+	 */
+	public void throwIfCancelled() {
+		if (this.cancelled) throw new CancellationException("The record has been cancelled by its sender");
+	}
+
+	/**
+	 * Register a callback which is called once the token gets cancelled, or right away if it already has been
+	 *
+	 * @param callback the callback to register
+	 */
+	public void onCancel(@NotNull Runnable callback) {
+		synchronized (this.callbacks) {
+			if (!this.cancelled) {
+				this.callbacks.add(callback);
+				return;
+			}
+		}
+
+		callback.run();
+	}
+
+	/**
+	 * Cancel the token, and call all registered callbacks
+	 */
+	public void cancel() {
+		final List<Runnable> callbacks;
+		synchronized (this.callbacks) {
+			if (this.cancelled) return;
+			this.cancelled = true;
+
+			callbacks = new ArrayList<>(this.callbacks);
+			this.callbacks.clear();
+		}
+
+		callbacks.forEach(Runnable::run);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import com.xcodiq.lettuce.LettuceManager;
+import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.packet.internal.ClaimCheckPacket;
+import com.xcodiq.packet.serialization.PacketCodec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offloads packets that are too large to publish. Redis copies a published message into the output buffer of every
+ * subscriber, so a large packet is stored once under a key with a time to live, and only a claim check is published.
+ * The key is written on the same connection as the publish, so it always exists before the claim check arrives.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class ClaimChecks {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ClaimChecks.class);
+
+	private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(1); // the time to live of packets without a deadline
+	private static final long TTL_SLACK = TimeUnit.SECONDS.toMillis(1); // the time to live beyond the deadline, for clock skew
+
+	private final LettuceManager lettuceManager;
+	private final PacketCodec codec;
+	private final String keyPrefix;
+	private final int threshold;
+
+	/**
+	 * Constructs new claim checks
+	 *
+	 * @param lettuceManager the lettuce manager to store and fetch packets with
+	 * @param codec          the codec to decode fetched packets with
+	 * @param recordPrefix   the record prefix, the keys are prefixed with it
+	 * @param threshold      the size in bytes above which packets are offloaded, {@code 0} to never offload packets
+	 */
+	ClaimChecks(LettuceManager lettuceManager, PacketCodec codec, String recordPrefix, int threshold) {
+		this.lettuceManager = lettuceManager;
+		this.codec = codec;
+		this.keyPrefix = "claim." + recordPrefix + ".";
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Check if a packet is too large to publish
+	 *
+	 * @param size the size of the encoded packet in bytes
+	 * @return {@code true} if the packet should be offloaded, {@code false} otherwise
+	 */
+	boolean exceeds(long size) {
+		return this.threshold > 0 && size > this.threshold;
+	}
+
+	/**
+	 * Store an encoded packet, and create the claim check to publish in its place
+	 *
+	 * @param packet   the packet to offload
+	 * @param message  the encoded packet
+	 * @param deadline the epoch millis the packet is no longer needed after, {@code 0} if unknown
+	 * @param lane     the lane the claim check is going to be published on
+	 * @return the claim check of the packet
+	 */
+	@NotNull ClaimCheckPacket store(@NotNull RedisPacket packet, byte @NotNull [] message, long deadline, int lane) {
+		final long ttl = deadline > 0 ? Math.max(0, deadline - System.currentTimeMillis()) + TTL_SLACK : DEFAULT_TTL;
+		final String key = this.keyPrefix + packet.getPacketId();
+		this.lettuceManager.store(key, message, ttl, lane);
+
+		return new ClaimCheckPacket(key, packet);
+	}
+
+	/**
+	 * Resolve a packet, fetching it if it is a claim check
+	 *
+	 * @param packet the received packet
+	 * @return a stage completing with the packet, or with {@code null} if it expired or could not be fetched
+	 */
+	@NotNull CompletionStage<@Nullable RedisPacket> resolve(@Nullable RedisPacket packet) {
+		if (!(packet instanceof ClaimCheckPacket)) return CompletableFuture.completedFuture(packet);
+
+		final String key = ((ClaimCheckPacket) packet).getKey();
+		return this.lettuceManager.fetch(key).thenApply(message -> message == null ? null : this.codec.<RedisPacket>decode(message))
+				.exceptionally(throwable -> {
+					LOG.error("Unable to fetch the packet of claim check: " + key, throwable);
+					return null;
+				});
+	}
+}
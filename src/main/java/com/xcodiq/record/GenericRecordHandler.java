@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents the base of every handler that can be bound to a record, either synchronous or asynchronous.
+ *
+ * @param <P> the generic of the sent-packet type
+ * @param <R> the generic of the reply-packet type
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @see RecordHandler
+ * @see AsyncRecordHandler
+ * @since 1.0
+ */
+public abstract class GenericRecordHandler<P extends RedisPacket, R extends RedisPacket> {
+
+	/**
+	 * Create the reply-packet, completing the returned stage once the reply-packet is available
+	 *
+	 * @param redisPacket the packet to create the reply-packet from
+	 * @return a stage completing with {@code null} if the reply-packet is not needed, otherwise the reply-packet
+	 */
+	public abstract @NotNull CompletionStage<@Nullable R> getReplyPacketAsync(RedisPacket redisPacket);
+
+	/**
+	 * Prepare a reply-packet so it can be linked back to the record of the sent-packet
+	 *
+	 * @param redisPacket the packet the reply-packet was created from
+	 * @param replyPacket the reply-packet to prepare
+	 * @return {@code null} if the reply-packet is {@code null}, otherwise the prepared reply-packet
+	 */
+	protected @Nullable R prepareReplyPacket(RedisPacket redisPacket, @Nullable R replyPacket) {
+		if (replyPacket == null) return null;
+
+		// Adjust the recordId and return the reply-packet
+		replyPacket.setRecordId(redisPacket.getRecordId());
+		replyPacket.setReplyPacket(true);
+		return replyPacket;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A one-way record is a fire-and-forget {@link Record}, e.g. a notification. It is published without waiting
+ * for a reply, so it never becomes pending and the receiving instances know not to reply to it.
+ *
+ * @param <P> the generic of the sent-packet type
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public class OneWayRecord<P extends RedisPacket> extends Record<P, RedisPacket> {
+
+	/**
+	 * Constructs a new {@link OneWayRecord} given an instance of the required sent-packet
+	 *
+	 * @param sentPacket the sent-packet instance to publish
+	 */
+	public OneWayRecord(@NotNull P sentPacket) {
+		super(sentPacket);
+	}
+
+	@Override
+	public boolean isOneWay() {
+		return true;
+	}
+}
@@ -27,7 +27,9 @@ package com.xcodiq.record;
 import com.xcodiq.exception.RecordManagerNotFoundException;
 import com.xcodiq.packet.PacketStatus;
 import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.record.limit.AdaptiveLimiter;
 import com.xcodiq.rpc.RPC;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
@@ -56,9 +58,33 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 	private int timeout = 5; // the maximum time to wait
 	private TimeUnit timeUnit = TimeUnit.SECONDS; // the time unit of the timeout argument
 
+	private boolean hedged = false; // whether the record is sent again when its reply is late
+	private RecordPriority priority = RecordPriority.NORMAL; // the priority of the record
+	private String routingKey; // the key routing the record to a single node, null to broadcast it
+
 	@Setter
 	private Instant sentAt;
 
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile RecordManager recordManager; // the record manager the record has been sent with
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile boolean hedgeSent; // whether a hedge of the record has been sent
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile AdaptiveLimiter limiter; // the limiter holding a slot for this record, if any
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile String targetNode; // the node the record has been routed to, null if it has been broadcast
+
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private volatile String hedgeTarget; // the other node the hedge of the record has been routed to, null if there is none
+
 	/**
 	 * Constructs a new {@link Record} given an instance of the required sent-packet
 	 *
@@ -82,6 +108,15 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 	 * @param replyPacket the reply packet to use as acceptance
 	 */
 	public void complete(RedisPacket replyPacket) {
+		// Check if the reply-packet only carries an error status, e.g. when the record was rejected, replies produced
+		// by a handler always reach the reply consumer, even when they carry an error status
+		if (replyPacket.getClass() == RedisPacket.class && replyPacket.getPacketStatus().isError()) {
+			// If it does, pass the status to the sent-packet and call the timeout consumer
+			this.sentPacket.setPacketStatus(replyPacket.getPacketStatus());
+			this.timeout();
+			return;
+		}
+
 		// Check if the reply consumer is null
 		if (this.replyConsumer != null) {
 			// If not, call the reply consumer
@@ -95,6 +130,9 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 
 	/**
 	 * Timeout the {@link Record} by accepting the {@link Record#onTimeout(Consumer)} consumer
+	 * <p>
+	 * The status of the sent-packet tells why the record did not complete, it is
+	 * set to the status of the reply-packet when the receiving side rejected the record
 	 *
 	 * @apiNote This method is called automatically when the record times out,
 	 * which can be configured using {@link Record#setTimeout(int, TimeUnit)}
@@ -123,6 +161,82 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 		return this;
 	}
 
+	/**
+	 * Set whether the {@link Record} is hedged, a hedged record is sent once more (with a new packet id)
+	 * when no reply has been received within the 95th percentile latency of its record type.
+	 * The first reply completes the record, and the other copy is cancelled. A load balanced record without a routing key
+	 * is hedged to another node, it is not hedged when there is no other node to send it to.
+	 *
+	 * @param hedged {@code true} to hedge the record, {@code false} otherwise
+	 * @return the record instance, for chaining
+	 * @apiNote Hedges are limited by the retry budget, see {@link com.xcodiq.rpc.Options#setRetryBudgetRatio(double)}
+	 */
+	public Record<P, R> setHedged(boolean hedged) {
+		// Update the hedged field
+		this.hedged = hedged;
+
+		// Return itself (builder)
+		return this;
+	}
+
+	/**
+	 * Check if the {@link Record} is one-way, meaning it is sent without waiting for a reply
+	 *
+	 * @return {@code true} if the record is one-way, {@code false} otherwise
+	 * @see OneWayRecord
+	 */
+	public boolean isOneWay() {
+		return false;
+	}
+
+	/**
+	 * Set the priority of the {@link Record}, it decides the publisher connection of the record and
+	 * the order in which the receiving instances handle it
+	 *
+	 * @param priority the priority to set
+	 * @return the record instance, for chaining
+	 */
+	public Record<P, R> setPriority(@NotNull RecordPriority priority) {
+		// Update the priority field
+		this.priority = priority;
+
+		// Return itself (builder)
+		return this;
+	}
+
+	/**
+	 * Set the routing key of the {@link Record}, records with the same routing key are sent to the same node,
+	 * so the local state of that node (e.g. a cache of the key) can be reused
+	 *
+	 * @param routingKey the routing key to set, {@code null} to broadcast the record to all instances
+	 * @return the record instance, for chaining
+	 * @apiNote Records are only routed when the record manager has a membership view,
+	 * see {@link RecordManager#setMembershipView(com.xcodiq.record.routing.MembershipView)}
+	 */
+	public Record<P, R> setRoutingKey(String routingKey) {
+		// Update the routing key field
+		this.routingKey = routingKey;
+
+		// Return itself (builder)
+		return this;
+	}
+
+	/**
+	 * Shorten the timeout of the {@link Record} to the remaining budget of a received packet,
+	 * so a record sent while handling a packet never outlives the record it was sent for
+	 *
+	 * @param packet the received packet to inherit the deadline from
+	 * @return the record instance, for chaining
+	 */
+	public Record<P, R> inheritDeadline(@NotNull RedisPacket packet) {
+		// Check if the packet has a deadline, and if it is shorter than the current timeout
+		final long remainingBudget = packet.getRemainingBudget(TimeUnit.MILLISECONDS);
+		if (remainingBudget >= this.timeUnit.toMillis(this.timeout)) return this;
+
+		// If it is, use the remaining budget as timeout
+		return this.setTimeout((int) remainingBudget, TimeUnit.MILLISECONDS);
+	}
+
 	/**
 	 * Send the {@link Record} using a specific {@link RecordManager}
 	 *
@@ -140,11 +254,12 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 	}
 
 	/**
-	 * Send the {@link Record} using the default {@link RecordManager}
+	 * Send the {@link Record} using the {@link RecordManager} of the global {@link RPC} instance
 	 *
 	 * @return the record instance, for chaining
 	 *
 	 * @throws RecordManagerNotFoundException if the default record manager is not found
+	 * @throws IllegalStateException          if no {@link RPC} instance has been registered as the global instance
 	 * @see RecordManager#send(Record)
 	 */
 	public Record<P, R> send() {
@@ -157,6 +272,19 @@ public class Record<P extends RedisPacket, R extends RedisPacket> {
 		return this.send(recordManager);
 	}
 
+	/**
+	 * Cancel the {@link Record}, it stops waiting for a reply and the receiving instances are told to drop
+	 * it if it is still queued, or to cancel the {@link com.xcodiq.packet.RedisPacket#getCancellationToken()} if it is running
+	 *
+	 * @return {@code true} if the record was cancelled, {@code false} if it was not pending (anymore)
+	 * @apiNote Neither the timeout nor the reply consumer is called for a cancelled record
+	 * @see RecordManager#cancel(Record)
+	 */
+	public boolean cancel() {
+		final RecordManager recordManager = this.recordManager;
+		return recordManager != null && recordManager.cancel(this);
+	}
+
 	/**
 	 * Set the current {@link Record#timeoutConsumer} to a new consumer
 	 *
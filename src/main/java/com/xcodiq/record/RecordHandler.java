@@ -25,8 +25,12 @@
 package com.xcodiq.record;
 
 import com.xcodiq.packet.RedisPacket;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Represents a handler to handle a redis packet, and create a reply packet.
  *
@@ -36,7 +40,7 @@ import org.jetbrains.annotations.Nullable;
  * @wesbite https://xcodiq.com
  * @since 1.0
  */
-public abstract class RecordHandler<P extends RedisPacket, R extends RedisPacket> {
+public abstract class RecordHandler<P extends RedisPacket, R extends RedisPacket> extends GenericRecordHandler<P, R> {
 
 	/**
 	 * Handle the redis-packet
@@ -54,12 +58,15 @@ public abstract class RecordHandler<P extends RedisPacket, R extends RedisPacket
 	 */
 	public @Nullable R getReplyPacket(RedisPacket redisPacket) {
 		// Use the abstract handlePacket method to get a reply-packet
-		final R replyPacket = this.handlePacket((P) redisPacket);
-		if (replyPacket == null) return null;
+		return this.prepareReplyPacket(redisPacket, this.handlePacket((P) redisPacket));
+	}
 
-		// Adjust the recordId and return the reply-packet
-		replyPacket.setRecordId(redisPacket.getRecordId());
-		replyPacket.setReplyPacket(true);
-		return replyPacket;
+	@Override
+	public @NotNull CompletionStage<@Nullable R> getReplyPacketAsync(RedisPacket redisPacket) {
+		try {
+			return CompletableFuture.completedFuture(this.getReplyPacket(redisPacket));
+		} catch (Exception exception) {
+			return CompletableFuture.failedFuture(exception);
+		}
 	}
 }
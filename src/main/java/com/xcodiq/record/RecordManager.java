@@ -27,25 +27,54 @@ package com.xcodiq.record;
 import com.xcodiq.exception.RecordHandlerAlreadyBoundException;
 import com.xcodiq.exception.RecordHandlerNotFoundException;
 import com.xcodiq.lettuce.LettuceManager;
+import com.xcodiq.membership.Membership;
+import com.xcodiq.packet.PacketStatus;
 import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.packet.internal.ClaimCheckPacket;
 import com.xcodiq.packet.internal.IncomingPacket;
 import com.xcodiq.packet.listener.PacketListener;
-import com.xcodiq.packet.serialization.PacketSerializer;
+import com.xcodiq.packet.serialization.ChunkAssembler;
+import com.xcodiq.packet.serialization.PacketCodec;
+import com.xcodiq.record.dispatch.Bulkhead;
+import com.xcodiq.record.dispatch.LoadShedder;
+import com.xcodiq.record.dispatch.PriorityDispatcher;
+import com.xcodiq.record.limit.AdaptiveLimiter;
+import com.xcodiq.record.limit.LatencyTracker;
+import com.xcodiq.record.limit.RetryBudget;
+import com.xcodiq.record.routing.LoadBalancing;
+import com.xcodiq.record.routing.MembershipView;
+import com.xcodiq.record.routing.NodeLoad;
+import com.xcodiq.record.routing.RendezvousHashing;
+import com.xcodiq.rpc.Options;
 import com.xcodiq.rpc.RPC;
+import com.xcodiq.sharedmemory.SharedMemoryTransport;
 import com.xcodiq.util.collection.ExpiringList;
 import com.xcodiq.util.collection.ExpiringMap;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands;
+import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The record manager is responsible for handling all incoming packets and
@@ -58,15 +87,51 @@ import java.util.concurrent.TimeUnit;
 public final class RecordManager {
 
 	private static final Logger LOG = LoggerFactory.getLogger(RecordManager.class);
+	private static final CompletionStage<?> COMPLETED = CompletableFuture.completedFuture(null);
+	private static final String BROADCAST_TARGET = "*";
+	private static final double HEDGE_PERCENTILE = 0.95;
 
 	private final ExpiringList<UUID> handledPackets = new ExpiringList<>(10, TimeUnit.SECONDS);
 	private final ExpiringMap<UUID, Record<?, ?>> pendingRecords = new ExpiringMap<>(
-			(uuid, record) -> record.timeout(), 1, TimeUnit.SECONDS);
+			(uuid, record) -> this.runCallback(() -> this.expire(record)), 1, TimeUnit.SECONDS);
+	private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+	private final Map<UUID, CancellationToken> activeRequests = new ConcurrentHashMap<>();
+	private final Map<Class<?>, LatencyTracker> latencies = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> outstanding = new ConcurrentHashMap<>(); // the pending records per target node
+	private final AtomicInteger receivedRequests = new AtomicInteger(); // the received records that have not finished yet
+	private final LatencyTracker handlerLatencies = new LatencyTracker();
 
-	private final Map<Class<? extends Record<?, ?>>, RecordHandler<?, ?>> recordHandlers = new HashMap<>();
+	private final RecordRegistry recordRegistry = new RecordRegistry();
 
 	private final LettuceManager lettuceManager;
+	private final PacketCodec codec;
+	private final ScheduledExecutorService scheduler;
+	private final StatefulRedisPubSubConnection<String, byte[]> subscriber;
+	private final Executor handlerExecutor;
+	private final PriorityDispatcher dispatcher;
+	private final LoadShedder loadShedder;
 	private final String recordPrefix;
+	private final String replyRecordPrefix;
+	private final String cancelRecordPrefix;
+	private final String inboxRecordPrefix;
+	private final LoadBalancing loadBalancing;
+	private final ClaimChecks claimChecks;
+	private final ChunkAssembler chunkAssembler;
+	private final int chunkSize;
+
+	private volatile MembershipView membershipView; // the membership view routing records, null to broadcast all records
+
+	@Getter
+	private final @Nullable Membership membership; // the membership of this instance, null if it is not tracked
+	@Getter
+	private final @Nullable SharedMemoryTransport sharedMemory; // the transport to the instances on this host, null if disabled
+
+	@Getter
+	private final String nodeId = UUID.randomUUID().toString(); // the unique id of this instance
+
+	private final boolean adaptiveLimiting;
+	private final int limiterQueueSize;
+	private final RetryBudget retryBudget;
 
 	/**
 	 * Constructs a new record manager given a {@link RPC} instance
@@ -74,73 +139,575 @@ public final class RecordManager {
 	 * @param rpc the {@link RPC} instance to use
 	 */
 	public RecordManager(@NotNull RPC<?> rpc) {
-		// Get the lettuce manager
+		// Get the lettuce manager, the codec and the scheduler of this rpc instance
 		this.lettuceManager = rpc.getLettuceManager();
+		this.codec = rpc.getCodec();
+		this.scheduler = rpc.getScheduler();
+		this.handledPackets.setScheduler(this.scheduler);
+		this.pendingRecords.setScheduler(this.scheduler);
+
+		// Create the executor the record handlers are executed on
+		final Options options = rpc.getOptions();
+		this.handlerExecutor = options.getHandlerExecution().createExecutor(options.getHandlerThreads());
+		this.dispatcher = new PriorityDispatcher(this.handlerExecutor, options.getPriorityScheduling());
+		this.loadShedder = new LoadShedder(options.getMaxQueueTimeUnit().toNanos(options.getMaxQueueTime()),
+				options.isAdaptiveShedding());
+
+		// Get the adaptive limiting settings from the rpc options
+		this.adaptiveLimiting = options.isAdaptiveLimiting();
+		this.limiterQueueSize = options.getLimiterQueueSize();
+		this.retryBudget = new RetryBudget(options.getRetryBudgetRatio(), options.getRetryBudgetMinPerSecond(),
+				options.getRetryBudgetMaxTokens());
 
 		// Get the record prefix from the rpc options
-		this.recordPrefix = rpc.getOptions().getRecordPrefix();
-		final String replyRecordPrefix = "reply." + this.recordPrefix;
+		this.recordPrefix = options.getRecordPrefix();
+		this.replyRecordPrefix = "reply." + this.recordPrefix;
+		this.cancelRecordPrefix = "cancel." + this.recordPrefix;
+		this.inboxRecordPrefix = "inbox." + this.recordPrefix + "." + this.nodeId;
+		this.loadBalancing = options.getLoadBalancing();
+		// Large packets are either split into chunks, or offloaded to a key
+		this.chunkSize = options.getChunkSize();
+		this.chunkAssembler = new ChunkAssembler(options.getMaxReassemblyBytes(), this.scheduler, 10, TimeUnit.SECONDS);
+		this.claimChecks = new ClaimChecks(this.lettuceManager, this.codec, this.recordPrefix,
+				this.chunkSize > 0 ? 0 : options.getClaimCheckThreshold());
+
+		// Join the membership of the record prefix, it routes the records with a routing key
+		if (options.isMembershipTracking()) {
+			this.membership = new Membership(this.nodeId, this.recordPrefix, this.lettuceManager, this.codec, this.scheduler,
+					options.getHeartbeatInterval(), options.getHeartbeatIntervalUnit(),
+					() -> this.recordRegistry.getBindings().keySet(), this::getLoad, this::failRecordsTargeting);
+			this.membershipView = this.membership;
+		} else this.membership = null;
+
+		// Exchange routed records and replies with the instances on this host through shared memory
+		this.sharedMemory = options.isSharedMemory() ? SharedMemoryTransport.open(this.nodeId, this.recordPrefix,
+				Path.of(options.getSharedMemoryDirectory()), options.getSharedMemoryRingSize(), this.scheduler, this.handlerExecutor,
+				this::receiveLocal) : null;
 
 		// Create a new pub sub connection
-		final StatefulRedisPubSubConnection<String, String> statefulConnection = this.lettuceManager.getRedisClient().connectPubSub();
+		final StatefulRedisPubSubConnection<String, byte[]> statefulConnection = this.lettuceManager.connectPubSub();
+		this.subscriber = statefulConnection;
 
 		// Register the sent-packet listener
 		statefulConnection.addListener(new PacketListener(this.recordPrefix) {
 			@Override
-			public void process(String channel, String serializedPacket) {
-				// Read the incoming packet from the message
-				final IncomingPacket incomingPacket = RPC.getGson().fromJson(serializedPacket, IncomingPacket.class);
-				if (incomingPacket == null || !isRecordHandlerBound(incomingPacket.getRecordClass())) return;
+			public void process(String channel, byte[] message) {
+				final byte[] fullMessage = reassemble(message);
+				if (fullMessage != null) receive(channel, fullMessage, false);
+			}
+		});
 
-				// Deserialize the packet and check if serialized correctly
-				final RedisPacket redisPacket = PacketSerializer.deserialize(incomingPacket.getSerializedPacket());
-				if (redisPacket == null || redisPacket.isReplyPacket()) return;
+		// Register the inbox listener, receiving the records routed to this instance only
+		statefulConnection.addListener(new PacketListener(inboxRecordPrefix) {
+			@Override
+			public void process(String channel, byte[] message) {
+				final byte[] fullMessage = reassemble(message);
+				if (fullMessage != null) receive(channel, fullMessage, true);
+			}
+		});
 
-				// Check if the packet has been handled, if not add it
-				if (handledPackets.contains(redisPacket.getPacketId())) return;
-				else handledPackets.add(redisPacket.getPacketId());
+		// Register the reply-packet listener
+		statefulConnection.addListener(new PacketListener(replyRecordPrefix) {
+			@Override
+			public void process(String channel, byte[] message) {
+				// Decode the message to a redis-packet, once all of its chunks have been received
+				final byte[] fullMessage = reassemble(message);
+				if (fullMessage != null) receiveReply(fullMessage);
+			}
+		});
 
-				// Check if there is a record handler available
-				final RecordHandler<?, ?> recordHandler = getRecordHandler(incomingPacket.getRecordClass());
-				if (recordHandler == null) throw new RecordHandlerNotFoundException(
-						"No RecordHandler has been found while preparing a reply-packet.");
+		// Register the cancel listener
+		statefulConnection.addListener(new PacketListener(cancelRecordPrefix) {
+			@Override
+			public void process(String channel, byte[] message) {
+				// Cancel the record request, if it is still queued or running
+				final CancellationToken cancellationToken = activeRequests.remove(recordIdOf(channel));
+				if (cancellationToken != null) cancellationToken.cancel();
+			}
+		});
+
+		// Create an async connection and subscribe to the communication pattern
+		final RedisPubSubAsyncCommands<String, byte[]> pubSubAsyncCommands = statefulConnection.async();
+		pubSubAsyncCommands.psubscribe(this.recordPrefix + ".*", replyRecordPrefix + ".*", cancelRecordPrefix + ".*",
+				inboxRecordPrefix + ".*");
+
+		// Debug log
+		LOG.debug("Subscribed to the communication pattern: '" + this.recordPrefix + ".*', '" + replyRecordPrefix
+				+ ".*', '" + cancelRecordPrefix + ".*' and '" + inboxRecordPrefix + ".*'");
+
+		if (this.membership != null) this.membership.start();
+	}
+
+	/**
+	 * Receive an encoded reply-packet
+	 *
+	 * @param message the encoded reply-packet
+	 */
+	private void receiveReply(byte[] message) {
+		final RedisPacket replyPacket = this.codec.decode(message);
+		if (replyPacket == null) return;
+		if (!replyPacket.isReplyPacket()) {
+			this.codec.recycle(replyPacket);
+			return;
+		}
 
-				// Prepare a reply-packet using the record handler
-				final RedisPacket replyPacket = recordHandler.getReplyPacket(redisPacket);
-				if (replyPacket == null) return;
+		// Fetch the reply-packet of a claim check, only if the record is still waiting for it
+		if (replyPacket instanceof ClaimCheckPacket) {
+			if (!this.isPending(replyPacket.getRecordId())) return;
+
+			this.claimChecks.resolve(replyPacket).thenAccept(resolvedPacket -> {
+				if (resolvedPacket != null) this.receiveReply(resolvedPacket);
+			});
+			return;
+		}
+		this.receiveReply(replyPacket);
+	}
 
-				// Serialize the reply-packet and publish it back to the sender
-				final String serializedReplyPacket = PacketSerializer.serialize(replyPacket);
-				lettuceManager.publish(replyRecordPrefix + "." + channel, serializedReplyPacket);
+	/**
+	 * Receive a message sent through shared memory by an instance on this host, a routed record or a reply
+	 *
+	 * @param channel the channel of the message
+	 * @param message the message, never a chunk
+	 */
+	private void receiveLocal(String channel, byte[] message) {
+		if (channel.startsWith(this.replyRecordPrefix + ".")) this.receiveReply(message);
+		else if (channel.startsWith(this.inboxRecordPrefix + ".")) this.receive(channel, message, true);
+	}
 
-				// Debug log
-				LOG.debug("Published reply-packet with packetId: " + replyPacket.getPacketId());
+	/**
+	 * Receive a reply-packet, completing the record waiting for it
+	 *
+	 * @param replyPacket the received reply-packet
+	 */
+	private void receiveReply(RedisPacket replyPacket) {
+		// Remove-get the record from the pending records list
+		final Record<?, ?> record = this.removePending(replyPacket.getRecordId());
+		if (record == null) {
+			this.codec.recycle(replyPacket);
+			return;
+		}
+
+		// Let the limiter and latency tracker of the record learn from the reply
+		final boolean overloaded = isOverloaded(replyPacket.getPacketStatus());
+		final long latency = Duration.between(record.getSentAt(), Instant.now()).toNanos();
+		final AdaptiveLimiter limiter = record.getLimiter();
+		if (limiter != null) {
+			record.setLimiter(null);
+			if (overloaded) limiter.onDropped();
+			else limiter.onSample(latency);
+		}
+		if (!overloaded) this.latencies.computeIfAbsent(record.getClass(), recordClass -> new LatencyTracker()).record(latency);
+
+		// Cancel the other copy of a hedged record, this reply was first
+		if (record.isHedgeSent()) this.publishCancel(record);
+
+		// Complete the record by passing the reply-packet, it is reused once the reply consumer returned
+		record.complete(replyPacket);
+		this.codec.recycle(replyPacket);
+	}
+
+	/**
+	 * Receive a sent-packet, this is all the event loop does before handing it off to the handler executor
+	 *
+	 * @param channel   the channel the sent-packet was published on
+	 * @param message   the encoded incoming packet
+	 * @param addressed whether the sent-packet was routed to the inbox of this instance
+	 */
+	private void receive(String channel, byte[] message, boolean addressed) {
+		// Read the incoming packet header from the message
+		final IncomingPacket incomingPacket = this.codec.decodeIncomingPacket(message);
+		if (incomingPacket == null) return;
+
+		// Drop the packet if its sender already stopped waiting for a reply
+		if (incomingPacket.isExpired()) {
+			this.codec.recycle(incomingPacket);
+			return;
+		}
+
+		// Check if there is a record handler available, a single lookup by record class name
+		final RecordBinding recordBinding = this.recordRegistry.get(incomingPacket.getRecordClassName());
+		if (recordBinding == null) {
+			this.codec.recycle(incomingPacket);
+			return;
+		}
+
+		// Hand one-way packets off to the handler executor right away, unless this instance broadcast them
+		final UUID recordId = recordIdOf(channel);
+		if (incomingPacket.isOneWay()) {
+			if (!addressed && this.nodeId.equals(incomingPacket.getOrigin())) {
+				this.codec.recycle(incomingPacket);
+				return;
 			}
+
+			this.dispatch(new RecordRequest(channel, recordId, incomingPacket, recordBinding, new CancellationToken(), addressed));
+			return;
+		}
+
+		// Ignore records that have been broadcast by this instance, records routed to this instance are handled
+		if (!addressed && this.isPending(recordId)) {
+			this.codec.recycle(incomingPacket);
+			return;
+		}
+
+		// Hand the packet off to the handler executor, cancellable until it has been handled
+		final CancellationToken cancellationToken = this.activeRequests.computeIfAbsent(recordId, id -> new CancellationToken());
+		this.dispatch(new RecordRequest(channel, recordId, incomingPacket, recordBinding, cancellationToken, addressed));
+	}
+
+	/**
+	 * Shut down this record manager, it stops receiving records and stops the handler executor
+	 */
+	public void shutdown() {
+		if (this.membership != null) this.membership.shutdown();
+		if (this.sharedMemory != null) this.sharedMemory.shutdown();
+		this.subscriber.close();
+		if (this.handlerExecutor instanceof ExecutorService) ((ExecutorService) this.handlerExecutor).shutdown();
+	}
+
+	/**
+	 * Dispatch a record request to the handler executor by its priority, through the bulkhead of the record type if one has been configured
+	 *
+	 * @param request the record request to dispatch
+	 */
+	private void dispatch(RecordRequest request) {
+		this.receivedRequests.incrementAndGet();
+		final RecordPriority priority = request.getIncomingPacket().getPriority();
+		final Executor executor = this.dispatcher.forPriority(priority);
+		final Bulkhead bulkhead = request.getRecordBinding().getBulkhead();
+		if (bulkhead == null) {
+			executor.execute(() -> this.handle(request).whenComplete((ignored, throwable) -> this.finish(request)));
+			return;
+		}
+
+		final Runnable task = () -> this.handle(request).whenComplete((ignored, throwable) -> {
+			this.finish(request);
+			bulkhead.release();
 		});
+		if (!bulkhead.submit(task, priority, executor)) {
+			// Reject the packet right away, the bulkhead of this record type is full, a broadcast packet is dropped
+			// silently instead as the first reply completes the record, and other instances may still handle it
+			if (request.isAddressed()) this.publishStatus(request, PacketStatus.TOO_MANY_REQUESTS);
+			this.finish(request);
+		}
+	}
 
-		// Register the reply-packet listener
-		statefulConnection.addListener(new PacketListener(replyRecordPrefix) {
-			@Override
-			public void process(String channel, String serializedPacket) {
-				// Deserialize the message to a redis-packet
-				final RedisPacket replyPacket = PacketSerializer.deserialize(serializedPacket);
-				if (replyPacket == null || !replyPacket.isReplyPacket()) return;
+	/**
+	 * Finish a record request, it can no longer be cancelled and its envelope is reused
+	 *
+	 * @param request the record request to finish
+	 */
+	private void finish(RecordRequest request) {
+		this.receivedRequests.decrementAndGet();
+		this.activeRequests.remove(request.getRecordId(), request.getCancellationToken());
+		this.codec.recycle(request.getIncomingPacket());
+	}
+
+	/**
+	 * Handle a record request on the handler executor, and publish the reply-packet back to the sender
+	 *
+	 * @param request the record request to handle
+	 * @return a stage completing once the packet has been fully handled
+	 */
+	private CompletionStage<?> handle(RecordRequest request) {
+		final IncomingPacket incomingPacket = request.getIncomingPacket();
+
+		// Drop the packet if it was cancelled or its deadline passed while it was queued, nobody is waiting for the reply anymore
+		final CancellationToken cancellationToken = request.getCancellationToken();
+		if (cancellationToken.isCancelled() || incomingPacket.isExpired()) return COMPLETED;
+
+		// Shed the packet if it waited too long, its sender has likely given up on it already (a broadcast packet is
+		// shed silently, other instances may still reply to it)
+		final long now = System.nanoTime();
+		if (this.loadShedder.shouldShed(now - request.getReceivedAt(), now)) {
+			if (request.isAddressed()) this.publishStatus(request, PacketStatus.SERVICE_UNAVAILABLE);
+			return COMPLETED;
+		}
 
-				// Remove-get the record from the pending records list
-				final Record<?, ?> record = pendingRecords.remove(replyPacket.getRecordId());
-				if (record == null) return;
+		try {
+			// Deserialize the packet, a claim check is only fetched now that this instance is going to handle it
+			final RedisPacket redisPacket = this.codec.deserialize(incomingPacket.getSerializedPacket(), incomingPacket.getRawPayload());
+			if (redisPacket instanceof ClaimCheckPacket) {
+				return this.claimChecks.resolve(redisPacket).thenComposeAsync(resolvedPacket -> this.handle(request, resolvedPacket),
+						this.handlerExecutor);
+			}
+			return this.handle(request, redisPacket);
+		} catch (Exception exception) {
+			this.logHandlerError(incomingPacket, exception);
+			return COMPLETED;
+		}
+	}
 
-				// Complete the record by passing the reply-packet
-				record.complete(replyPacket);
+	/**
+	 * Handle the deserialized packet of a record request
+	 *
+	 * @param request     the record request to handle
+	 * @param redisPacket the deserialized packet, or {@code null} if it could not be deserialized
+	 * @return a stage completing once the packet has been fully handled
+	 */
+	private CompletionStage<?> handle(RecordRequest request, @Nullable RedisPacket redisPacket) {
+		final IncomingPacket incomingPacket = request.getIncomingPacket();
+		final CancellationToken cancellationToken = request.getCancellationToken();
+		try {
+			// Check if the packet was deserialized correctly, and was not cancelled while it was being fetched
+			if (redisPacket == null) return COMPLETED;
+			if (redisPacket.isReplyPacket() || cancellationToken.isCancelled()) {
+				this.codec.recycle(redisPacket);
+				return COMPLETED;
+			}
+
+			// Check if the packet has been handled, if not add it (one-way packets are never sent twice)
+			if (!incomingPacket.isOneWay() && !this.markHandled(redisPacket.getPacketId())) {
+				this.codec.recycle(redisPacket);
+				return COMPLETED;
+			}
+			redisPacket.setCancellationToken(cancellationToken);
+
+			// Prepare a reply-packet using the record handler, and publish it once it is available
+			final GenericRecordHandler<?, ?> recordHandler = request.getRecordBinding().getRecordHandler();
+			return this.invokeHandler(recordHandler, redisPacket, cancellationToken).whenComplete((replyPacket, throwable) -> {
+				this.handlerLatencies.record(System.nanoTime() - request.getReceivedAt());
+				// A cancelled asynchronous handler may still be using the packet, it is not reused
+				if (cancellationToken.isCancelled()) return;
+				if (throwable != null) {
+					this.logHandlerError(incomingPacket, throwable);
+					if (request.isAddressed()) this.publishStatus(request, PacketStatus.INTERNAL_SERVER_ERROR);
+				} else if (replyPacket != null) this.publishReply(request, replyPacket);
+				this.codec.recycle(redisPacket);
+			});
+		} catch (Exception exception) {
+			this.logHandlerError(incomingPacket, exception);
+			return COMPLETED;
+		}
+	}
+
+	/**
+	 * Invoke a record handler, interrupting it when the record gets cancelled while it is running
+	 *
+	 * @param recordHandler     the record handler to invoke
+	 * @param redisPacket       the packet to handle
+	 * @param cancellationToken the cancellation token of the record
+	 * @return the reply-packet stage of the record handler
+	 */
+	private CompletionStage<? extends RedisPacket> invokeHandler(GenericRecordHandler<?, ?> recordHandler, RedisPacket redisPacket,
+	                                                             CancellationToken cancellationToken) {
+		// Interrupt the handler thread while a synchronous handler is running on it
+		final Thread handlerThread = Thread.currentThread();
+		final boolean[] running = {true};
+		cancellationToken.onCancel(() -> {
+			synchronized (running) {
+				if (running[0]) handlerThread.interrupt();
 			}
 		});
 
-		// Create an async connection and subscribe to the communication pattern
-		final RedisPubSubAsyncCommands<String, String> pubSubAsyncCommands = statefulConnection.async();
-		pubSubAsyncCommands.psubscribe(this.recordPrefix + ".*", replyRecordPrefix + ".*");
+		final CompletionStage<? extends RedisPacket> replyStage;
+		try {
+			replyStage = recordHandler.getReplyPacketAsync(redisPacket);
+		} finally {
+			// Make sure the interrupt does not leak into the next task of the handler thread
+			synchronized (running) {
+				running[0] = false;
+				Thread.interrupted();
+			}
+		}
+
+		// Cancel the stage of an asynchronous handler
+		cancellationToken.onCancel(() -> {
+			try {
+				replyStage.toCompletableFuture().cancel(true);
+			} catch (UnsupportedOperationException ignored) {
+				// the stage can not be cancelled, its reply is ignored instead
+			}
+		});
+		return replyStage;
+	}
+
+	/**
+	 * Serialize a reply-packet and publish it back to the sender
+	 *
+	 * @param request     the record request to reply to
+	 * @param replyPacket the reply-packet to publish
+	 */
+	private void publishReply(RecordRequest request, RedisPacket replyPacket) {
+		// One-way packets are never replied to, nobody is waiting for it
+		if (request.getIncomingPacket().isOneWay()) return;
+
+		// Send the reply-packet through shared memory if the sender is on this host
+		final String channel = this.replyRecordPrefix + "." + request.getChannel();
+		final String senderNode = request.getIncomingPacket().getSenderNode();
+		byte[] message = this.codec.encode(replyPacket);
+		if (senderNode != null && this.sharedMemory != null && this.sharedMemory.send(senderNode, channel, message)) return;
+
+		// Offload the reply-packet if it is too large to publish
+		final int lane = request.getIncomingPacket().getPriority().getLane();
+		if (this.claimChecks.exceeds(message.length)) {
+			message = this.codec.encode(this.claimChecks.store(replyPacket, message, request.getIncomingPacket().getDeadline(), lane));
+		}
+		this.publishMessage(channel, message, lane);
 
 		// Debug log
-		LOG.debug("Subscribed to the communication pattern: '" + this.recordPrefix + ".*' and '" + replyRecordPrefix + ".*'");
+		LOG.debug("Published reply-packet with packetId: " + replyPacket.getPacketId());
+	}
+
+	/**
+	 * Publish a reply-packet without payload, only carrying a status back to the sender
+	 *
+	 * @param request the record request to reply to
+	 * @param status  the status to reply with
+	 */
+	private void publishStatus(RecordRequest request, PacketStatus status) {
+		final RedisPacket statusPacket = new RedisPacket(status);
+		statusPacket.setRecordId(request.getRecordId());
+		statusPacket.setReplyPacket(true);
+
+		this.publishReply(request, statusPacket);
+	}
+
+	private void logHandlerError(IncomingPacket incomingPacket, Throwable throwable) {
+		LOG.error("An error occurred while handling a packet of record: " + incomingPacket.getRecordClassName(), throwable);
+	}
+
+	/**
+	 * Expire a pending record which did not receive a reply in time
+	 *
+	 * @param record the record to expire
+	 */
+	private void expire(Record<?, ?> record) {
+		this.untrackOutstanding(record);
+
+		// Let the limiter of the record know it has been dropped
+		final AdaptiveLimiter limiter = record.getLimiter();
+		if (limiter != null) {
+			record.setLimiter(null);
+			limiter.onDropped();
+		}
+
+		record.timeout();
+	}
+
+	/**
+	 * Fail the pending records routed to a node that has been declared dead, instead of letting them wait out their timeout
+	 *
+	 * @param targetNode the node id of the dead node
+	 */
+	private void failRecordsTargeting(String targetNode) {
+		final List<Record<?, ?>> failedRecords = new ArrayList<>();
+		synchronized (this.pendingRecords) {
+			for (Record<?, ?> record : this.pendingRecords.values()) {
+				if (targetNode.equals(record.getTargetNode())) failedRecords.add(record);
+			}
+			failedRecords.forEach(record -> this.pendingRecords.remove(record.getRecordId()));
+		}
+		this.outstanding.remove(targetNode);
+		if (failedRecords.isEmpty()) return;
+
+		this.runCallback(() -> this.failRecords(failedRecords));
+		LOG.debug("Failed " + failedRecords.size() + " pending records routed to dead node: " + targetNode);
+	}
+
+	/**
+	 * Fail records that have been removed from the pending records, as their target node has been declared dead
+	 *
+	 * @param failedRecords the records to fail
+	 */
+	private void failRecords(List<Record<?, ?>> failedRecords) {
+		for (Record<?, ?> record : failedRecords) {
+			// Release the slot of the record, the limiter should not learn from a crashed node
+			final AdaptiveLimiter limiter = record.getLimiter();
+			if (limiter != null) {
+				record.setLimiter(null);
+				limiter.release();
+			}
+
+			record.getSentPacket().setPacketStatus(PacketStatus.SERVICE_UNAVAILABLE);
+			record.timeout();
+		}
+	}
+
+	/**
+	 * Run a record callback, e.g. the timeout consumer of a record, on the handler executor instead of the scheduler,
+	 * so a slow callback can not delay the timers of this instance (such as the membership heartbeats)
+	 *
+	 * @param callback the callback to run
+	 */
+	private void runCallback(Runnable callback) {
+		try {
+			this.handlerExecutor.execute(callback);
+		} catch (RejectedExecutionException exception) {
+			// The handler executor has been shut down, run the callback right away instead
+			callback.run();
+		}
+	}
+
+	/**
+	 * Check if a status means the receiving side is overloaded
+	 *
+	 * @param status the status to check
+	 * @return {@code true} if the status is an overload status, {@code false} otherwise
+	 */
+	private static boolean isOverloaded(PacketStatus status) {
+		return status == PacketStatus.TOO_MANY_REQUESTS || status == PacketStatus.SERVICE_UNAVAILABLE;
+	}
+
+	/**
+	 * Get the record id from the channel a sent-packet was published on
+	 *
+	 * @param channel the channel of the sent-packet
+	 * @return the record id
+	 */
+	private UUID recordIdOf(String channel) {
+		return UUID.fromString(channel.substring(channel.lastIndexOf('.') + 1));
+	}
+
+	/**
+	 * Remove a record from the pending records, it no longer counts as outstanding at its target node
+	 *
+	 * @param recordId the id of the record
+	 * @return the removed record, or {@code null} if it was not pending (anymore)
+	 */
+	private @Nullable Record<?, ?> removePending(UUID recordId) {
+		final Record<?, ?> record;
+		synchronized (this.pendingRecords) {
+			record = this.pendingRecords.remove(recordId);
+		}
+		if (record != null) this.untrackOutstanding(record);
+		return record;
+	}
+
+	private void untrackOutstanding(Record<?, ?> record) {
+		this.untrackOutstanding(record.getTargetNode());
+		this.untrackOutstanding(record.getHedgeTarget());
+	}
+
+	private void untrackOutstanding(@Nullable String targetNode) {
+		if (targetNode == null) return;
+
+		final AtomicInteger count = this.outstanding.get(targetNode);
+		if (count != null) count.decrementAndGet();
+	}
+
+	/**
+	 * Check if a record sent by this instance is still waiting for a reply
+	 *
+	 * @param recordId the id of the record
+	 * @return {@code true} if the record is pending, {@code false} otherwise
+	 */
+	private boolean isPending(UUID recordId) {
+		synchronized (this.pendingRecords) {
+			return this.pendingRecords.containsKey(recordId);
+		}
+	}
+
+	/**
+	 * Mark a packet as handled
+	 *
+	 * @param packetId the id of the packet to mark
+	 * @return {@code true} if the packet was not handled before, {@code false} otherwise
+	 */
+	private boolean markHandled(UUID packetId) {
+		synchronized (this.handledPackets) {
+			if (this.handledPackets.contains(packetId)) return false;
+			return this.handledPackets.add(packetId);
+		}
 	}
 
 	/**
@@ -150,13 +717,53 @@ public final class RecordManager {
 	 * @param recordHandler the record handler to bind
 	 * @throws RecordHandlerAlreadyBoundException if the record class is already bound to a record handler
 	 */
-	public void bindRecordHandler(@NotNull Class<? extends Record<?, ?>> recordClass, @NotNull RecordHandler<?, ?> recordHandler) {
-		// Check if the record handler is already bound to a record class
-		if (this.recordHandlers.containsKey(recordClass)) throw new RecordHandlerAlreadyBoundException(
-				"A record handler has already been bound to the record class: " + recordClass.getName());
+	public void bindRecordHandler(@NotNull Class<? extends Record<?, ?>> recordClass, @NotNull GenericRecordHandler<?, ?> recordHandler) {
+		this.bindRecordHandler(recordClass, recordHandler, null);
+	}
+
+	/**
+	 * Bind a record class to a new record handler, limiting the handler by a bulkhead
+	 *
+	 * @param recordClass   the record class to bind
+	 * @param recordHandler the record handler to bind
+	 * @param bulkhead      the bulkhead limiting the concurrency and queue of the handler, or {@code null} for no limits
+	 * @throws RecordHandlerAlreadyBoundException if the record class is already bound to a record handler
+	 */
+	public void bindRecordHandler(@NotNull Class<? extends Record<?, ?>> recordClass, @NotNull GenericRecordHandler<?, ?> recordHandler,
+	                              @Nullable Bulkhead bulkhead) {
+		// Bind the record handler to the record class, if no record handler has been bound to it yet
+		if (!this.recordRegistry.bind(recordClass.getName(), new RecordBinding(recordHandler, bulkhead))) {
+			throw new RecordHandlerAlreadyBoundException(
+					"A record handler has already been bound to the record class: " + recordClass.getName());
+		}
+	}
 
-		// If not, bind the record handler to the record class
-		this.recordHandlers.put(recordClass, recordHandler);
+	/**
+	 * Bind a record class to a new record handler, replacing the record handler that is currently bound to it
+	 *
+	 * @param recordClass   the record class to bind
+	 * @param recordHandler the record handler to bind
+	 * @param bulkhead      the bulkhead limiting the concurrency and queue of the handler, or {@code null} for no limits
+	 * @apiNote Packets that are already being handled finish on the previous record handler
+	 */
+	public void rebindRecordHandler(@NotNull Class<? extends Record<?, ?>> recordClass, @NotNull GenericRecordHandler<?, ?> recordHandler,
+	                                @Nullable Bulkhead bulkhead) {
+		this.recordRegistry.rebind(recordClass.getName(), new RecordBinding(recordHandler, bulkhead));
+	}
+
+	/**
+	 * Unbind the record handler of a record class
+	 *
+	 * @param recordClass the record class to unbind
+	 * @return the record handler that was bound to the record class
+	 * @throws RecordHandlerNotFoundException if no record handler was bound to the record class
+	 */
+	public @NotNull GenericRecordHandler<?, ?> unbindRecordHandler(@NotNull Class<? extends Record<?, ?>> recordClass) {
+		final RecordBinding recordBinding = this.recordRegistry.unbind(recordClass.getName());
+		if (recordBinding == null) throw new RecordHandlerNotFoundException(
+				"No record handler has been bound to the record class: " + recordClass.getName());
+
+		return recordBinding.getRecordHandler();
 	}
 
 	/**
@@ -166,7 +773,7 @@ public final class RecordManager {
 	 * @return {@code true} if the record class is bound to a record handler, {@code false} otherwise
 	 */
 	public boolean isRecordHandlerBound(@NotNull Class<?> recordClass) {
-		return this.recordHandlers.containsKey(recordClass);
+		return this.recordRegistry.get(recordClass.getName()) != null;
 	}
 
 	/**
@@ -175,8 +782,9 @@ public final class RecordManager {
 	 * @param recordClass the record class to get the record handler from
 	 * @return the record handler bound to the record class
 	 */
-	public @Nullable RecordHandler<?, ?> getRecordHandler(Class<?> recordClass) {
-		return this.recordHandlers.get(recordClass);
+	public @Nullable GenericRecordHandler<?, ?> getRecordHandler(Class<?> recordClass) {
+		final RecordBinding recordBinding = this.recordRegistry.get(recordClass.getName());
+		return recordBinding == null ? null : recordBinding.getRecordHandler();
 	}
 
 	/**
@@ -190,19 +798,313 @@ public final class RecordManager {
 	public <P extends RedisPacket> void send(@NotNull Record<P, ?> record, int timeout, TimeUnit timeUnit) {
 		// Make sure the sent-packet channel and record channel are the same
 		record.getSentPacket().setChannel(record.getChannel());
+		record.setRecordManager(this);
+
+		// Route the record to a single node if it has a routing key, otherwise it is broadcast
+		record.setTargetNode(this.route(record));
+
+		// One-way records are published right away, without a pending record, timer or reply
+		if (record.isOneWay()) {
+			record.setSentAt(Instant.now());
+			this.publishPacket(record);
+			return;
+		}
+
+		// Let the receivers know how long the record will be waiting for a reply
+		record.getSentPacket().setDeadline(Instant.now().plusMillis(timeUnit.toMillis(timeout)));
 
 		// Add the record to the pending records
-		this.pendingRecords.put(record.getSentPacket().getRecordId(), record, timeout, timeUnit);
+		synchronized (this.pendingRecords) {
+			this.pendingRecords.put(record.getSentPacket().getRecordId(), record, timeout, timeUnit);
+		}
+		if (record.getTargetNode() != null) {
+			this.outstanding.computeIfAbsent(record.getTargetNode(), targetNode -> new AtomicInteger()).incrementAndGet();
+		}
 
-		// Ignore the packet from getting processed by its own sub client
-		this.handledPackets.add(record.getSentPacket().getPacketId());
+		// Ignore the packet from getting processed by its own sub client, unless it has been routed to this instance
+		if (!this.nodeId.equals(record.getTargetNode())) this.markHandled(record.getSentPacket().getPacketId());
 
-		// Publish the packet to the channel with the lettuce manager
-		this.lettuceManager.publish(this.recordPrefix + "." + record.getRecordId(), RPC.getGson().toJson(
-				IncomingPacket.of(record.getClass(), PacketSerializer.serialize(record.getSentPacket()))));
+		// Publish the packet right away if the in-flight records are not limited
+		if (!this.adaptiveLimiting) {
+			this.publish(record);
+			return;
+		}
 
-		// Finally, update the sent-at time
+		// Otherwise, publish it once the limiter of the record type allows it
+		final String target = record.getTargetNode() == null ? BROADCAST_TARGET : record.getTargetNode();
+		final AdaptiveLimiter limiter = this.limiters.computeIfAbsent(limiterKey(record.getClass(), target),
+				key -> new AdaptiveLimiter(this.limiterQueueSize));
+		final boolean accepted = limiter.submit(() -> {
+			// The record may have timed out while it was queued
+			if (!this.isPending(record.getRecordId())) {
+				limiter.release();
+				return;
+			}
+
+			record.setLimiter(limiter);
+			this.publish(record);
+		});
+		if (accepted) return;
+
+		// Fail the record right away, the limit has been reached
+		final Record<?, ?> rejectedRecord = this.removePending(record.getRecordId());
+		if (rejectedRecord == null) return;
+
+		record.getSentPacket().setPacketStatus(PacketStatus.TOO_MANY_REQUESTS);
+		record.timeout();
+	}
+
+	/**
+	 * Publish the sent-packet of a record to the channel of the record
+	 *
+	 * @param record the record to publish
+	 */
+	private void publish(@NotNull Record<?, ?> record) {
+		// Update the sent-at time, and let the record pay into the retry budget
 		record.setSentAt(Instant.now());
+		this.retryBudget.deposit();
+
+		// Schedule a hedge once the reply is later than the 95th percentile latency of the record type
+		if (record.isHedged()) {
+			final LatencyTracker latencyTracker = this.latencies.get(record.getClass());
+			final long hedgeDelay = latencyTracker == null ? -1 : latencyTracker.getPercentile(HEDGE_PERCENTILE);
+			if (hedgeDelay > 0 && hedgeDelay < record.getSentPacket().getRemainingBudget(TimeUnit.NANOSECONDS)) {
+				this.scheduler.schedule(() -> this.runCallback(() -> this.hedge(record)), hedgeDelay, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		this.publishPacket(record);
+	}
+
+	/**
+	 * Send a hedge of a record that is still waiting for its reply, if the retry budget allows it
+	 *
+	 * @param record the record to hedge
+	 */
+	private void hedge(@NotNull Record<?, ?> record) {
+		if (!this.isPending(record.getRecordId())) return;
+
+		// Route a load balanced record to another node, a hedge to the same (slow) node would not help
+		String targetNode = record.getTargetNode();
+		final boolean rerouted = targetNode != null && record.getRoutingKey() == null;
+		if (rerouted && (targetNode = this.route(record, targetNode)) == null) return;
+		if (!this.retryBudget.tryWithdraw()) return;
+
+		// Count the hedge as outstanding at its node, only while the record is still pending so it is untracked once
+		if (rerouted) {
+			synchronized (this.pendingRecords) {
+				if (!this.pendingRecords.containsKey(record.getRecordId())) return;
+				record.setHedgeTarget(targetNode);
+			}
+			this.outstanding.computeIfAbsent(targetNode, node -> new AtomicInteger()).incrementAndGet();
+		}
+
+		// Give the packet a new id, so receivers that already handled it handle the hedge as well
+		final RedisPacket sentPacket = record.getSentPacket();
+		sentPacket.renewPacketId();
+		if (!this.nodeId.equals(targetNode)) this.markHandled(sentPacket.getPacketId());
+
+		record.setHedgeSent(true);
+		this.publishPacket(record, targetNode);
+	}
+
+	/**
+	 * Publish the sent-packet of a record to the channel of the record
+	 *
+	 * @param record the record to publish the sent-packet of
+	 */
+	private void publishPacket(@NotNull Record<?, ?> record) {
+		this.publishPacket(record, record.getTargetNode());
+	}
+
+	/**
+	 * Publish the sent-packet of a record to the inbox of a node, or to all instances
+	 *
+	 * @param record     the record to publish the sent-packet of
+	 * @param targetNode the node to publish the sent-packet to, or {@code null} to broadcast it
+	 */
+	private void publishPacket(@NotNull Record<?, ?> record, @Nullable String targetNode) {
+		// Publish the packet to the channel with the lettuce manager
+		final RedisPacket sentPacket = record.getSentPacket();
+		final Instant deadline = sentPacket.getDeadline();
+		final long deadlineMillis = deadline == null ? 0 : deadline.toEpochMilli();
+
+		final String serializedPacket = this.codec.serialize(sentPacket);
+		final ByteBuffer rawPayload = PacketCodec.rawPayloadOf(sentPacket);
+		byte[] message = this.encodeSentPacket(record, serializedPacket, rawPayload, deadlineMillis);
+
+		// Send a routed record through shared memory if its target node is on this host, it is never offloaded
+		final String channel = this.channelOf(record, targetNode);
+		final int lane = record.getPriority().getLane();
+		if (targetNode != null && this.sharedMemory != null && this.sharedMemory.isLocal(targetNode)
+				&& this.sharedMemory.send(targetNode, channel, message)) return;
+
+		// Offload the sent-packet if the encoded message is too large to publish, the header of the record is still published
+		if (this.claimChecks.exceeds(message.length)) {
+			final byte[] packetMessage = PacketCodec.encode(serializedPacket, rawPayload);
+			final String claimCheck = this.codec.serialize(this.claimChecks.store(sentPacket, packetMessage, deadlineMillis, lane));
+			message = this.encodeSentPacket(record, claimCheck, null, deadlineMillis);
+		}
+		this.publishMessage(channel, message, lane);
+	}
+
+	/**
+	 * Encode the sent-packet of a record in its envelope
+	 *
+	 * @param record           the record of the sent-packet
+	 * @param serializedPacket the serialized sent-packet, or its claim check
+	 * @param rawPayload       the raw payload of the sent-packet, or {@code null} if it has none
+	 * @param deadlineMillis   the deadline of the record in epoch milliseconds, {@code 0} if it has none
+	 * @return the encoded envelope
+	 */
+	private byte[] encodeSentPacket(Record<?, ?> record, String serializedPacket, @Nullable ByteBuffer rawPayload, long deadlineMillis) {
+		final IncomingPacket incomingPacket = IncomingPacket.of(record.getClass(), serializedPacket, deadlineMillis, record.getPriority());
+		incomingPacket.setRawPayload(rawPayload);
+		if (record.isOneWay()) {
+			incomingPacket.setOrigin(this.nodeId);
+			incomingPacket.setOneWay(true);
+		} else if (this.sharedMemory != null) incomingPacket.setSenderNode(this.nodeId); // lets a local receiver reply through shared memory
+		return this.codec.encodeIncomingPacket(incomingPacket);
+	}
+
+	/**
+	 * Publish a message, split into chunks if it is larger than the chunk size
+	 *
+	 * @param channel the channel to publish the message to
+	 * @param message the message to publish
+	 * @param lane    the lane to publish the message on, all chunks are published on the same connection
+	 */
+	private void publishMessage(String channel, byte[] message, int lane) {
+		if (this.chunkSize == 0 || message.length <= this.chunkSize) {
+			this.lettuceManager.publish(channel, message, lane);
+			return;
+		}
+
+		for (byte[] chunk : ChunkAssembler.split(message, this.chunkSize)) this.lettuceManager.publish(channel, chunk, lane);
+	}
+
+	/**
+	 * Reassemble a received message, if it is a chunk of a larger message
+	 *
+	 * @param message the received message
+	 * @return the full message, or {@code null} if not all of its chunks have been received yet
+	 */
+	private byte @Nullable [] reassemble(byte[] message) {
+		return ChunkAssembler.isChunk(message) ? this.chunkAssembler.accept(message) : message;
+	}
+
+	/**
+	 * Get the channel to publish the sent-packet of a record to, the inbox of its target node
+	 * or the broadcast channel if it has not been routed
+	 *
+	 * @param record     the record to get the channel of
+	 * @param targetNode the node the record has been routed to, or {@code null} if it is broadcast
+	 * @return the channel to publish the sent-packet to
+	 */
+	private String channelOf(@NotNull Record<?, ?> record, @Nullable String targetNode) {
+		if (targetNode == null) return this.recordPrefix + "." + record.getRecordId();
+		return "inbox." + this.recordPrefix + "." + targetNode + "." + record.getRecordId();
+	}
+
+	/**
+	 * Route a record to the node its routing key belongs to
+	 *
+	 * @param record the record to route
+	 * @return the node the record has been routed to, or {@code null} to broadcast the record
+	 */
+	private @Nullable String route(@NotNull Record<?, ?> record) {
+		return this.route(record, null);
+	}
+
+	/**
+	 * Route a record to the node its routing key belongs to, or balance it over the nodes other than an excluded node
+	 *
+	 * @param record       the record to route
+	 * @param excludedNode the node to never balance the record to, e.g. the node a hedged record was first sent to
+	 * @return the node the record has been routed to, or {@code null} to broadcast the record
+	 */
+	private @Nullable String route(@NotNull Record<?, ?> record, @Nullable String excludedNode) {
+		final MembershipView membershipView = this.membershipView;
+		if (membershipView == null) return null;
+		if (record.getRoutingKey() == null && this.loadBalancing == LoadBalancing.BROADCAST) return null;
+
+		// Fall back to broadcasting the record if no node is known to handle it
+		final List<String> nodes = new ArrayList<>(membershipView.getNodes(record.getClass().getName()));
+		if (record.getRoutingKey() != null) return RendezvousHashing.select(record.getRoutingKey(), nodes);
+		if (excludedNode != null) nodes.remove(excludedNode);
+
+		// Otherwise, balance the record over the nodes by their load
+		return this.loadBalancing.select(nodes, node -> {
+			final AtomicInteger count = this.outstanding.get(node);
+			return count == null ? 0 : count.get();
+		}, membershipView::getLoad);
+	}
+
+	/**
+	 * Get the load of this instance, as advertised to the other members
+	 *
+	 * @return the load of this instance
+	 */
+	public @NotNull NodeLoad getLoad() {
+		final int queued = this.dispatcher.getQueued();
+		final int inFlight = Math.max(0, this.receivedRequests.get() - queued);
+		return new NodeLoad(queued, inFlight, Math.max(0, this.handlerLatencies.getPercentile(0.5)));
+	}
+
+	/**
+	 * Set the membership view used to route records with a routing key to a single node
+	 *
+	 * @param membershipView the membership view to use, {@code null} to broadcast all records
+	 * @see Record#setRoutingKey(String)
+	 */
+	public void setMembershipView(@Nullable MembershipView membershipView) {
+		this.membershipView = membershipView;
+	}
+
+	/**
+	 * Cancel a pending record, it stops waiting for a reply and all receiving instances are told to drop it
+	 *
+	 * @param record the record to cancel
+	 * @return {@code true} if the record was cancelled, {@code false} if it was not pending (anymore)
+	 */
+	public boolean cancel(@NotNull Record<?, ?> record) {
+		// Remove the record from the pending records
+		final Record<?, ?> cancelledRecord = this.removePending(record.getRecordId());
+		if (cancelledRecord == null) return false;
+
+		// Release the slot of the record, without letting the limiter learn from it
+		final AdaptiveLimiter limiter = record.getLimiter();
+		if (limiter != null) {
+			record.setLimiter(null);
+			limiter.release();
+		}
+
+		this.publishCancel(record);
+		return true;
+	}
+
+	/**
+	 * Publish a compact cancel signal, the record id is all the receivers need
+	 *
+	 * @param record the record to cancel
+	 */
+	private void publishCancel(Record<?, ?> record) {
+		this.lettuceManager.publish(this.cancelRecordPrefix + "." + record.getRecordId(), "", record.getPriority().getLane());
+	}
+
+	/**
+	 * Get the adaptive limiter of a record type and target, if adaptive limiting has been enabled
+	 *
+	 * @param recordClass the record class to get the limiter of
+	 * @param target      the target the records are sent to, {@code "*"} for records sent to all instances
+	 * @return the limiter of the record type and target, or {@code null} if there is none
+	 */
+	public @Nullable AdaptiveLimiter getLimiter(@NotNull Class<?> recordClass, @NotNull String target) {
+		return this.limiters.get(limiterKey(recordClass, target));
+	}
+
+	private static String limiterKey(Class<?> recordClass, String target) {
+		return recordClass.getName() + "@" + target;
 	}
 
 	/**
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+/**
+ * Represents the priority of a record, records of a higher priority are published on their
+ * own connection and are handled before the records of lower priorities
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public enum RecordPriority {
+
+	/**
+	 * Admin, health and latency-critical records
+	 */
+	CRITICAL(1, 8),
+
+	/**
+	 * Records that should be handled before regular records
+	 */
+	HIGH(2, 4),
+
+	/**
+	 * Regular records, the default priority
+	 */
+	NORMAL(0, 2),
+
+	/**
+	 * Bulk records, e.g. synchronization jobs, handled when there is room for them
+	 */
+	BULK(3, 1);
+
+	/**
+	 * The publisher connection lane, {@code 0} being the default publisher connection
+	 */
+	final int lane;
+
+	/**
+	 * The weight of the priority when records are scheduled by weight
+	 */
+	final int weight;
+
+	RecordPriority(int lane, int weight) {
+		this.lane = lane;
+		this.weight = weight;
+	}
+
+	/**
+	 * Gets lane.
+	 *
+	 * @return the lane
+	 */
+	public int getLane() {
+		return lane;
+	}
+
+	/**
+	 * Gets weight.
+	 *
+	 * @return the weight
+	 */
+	public int getWeight() {
+		return weight;
+	}
+}
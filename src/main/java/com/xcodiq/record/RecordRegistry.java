@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The record registry holds the record bindings of a record manager. It is copy-on-write: bindings are rare and
+ * copy the map, while the lookup for every received packet is a single read of an immutable map without locking.
+ * Bindings are keyed by record class name, so received packets never need to load their record class.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class RecordRegistry {
+
+	private volatile Map<String, RecordBinding> bindings = Map.of();
+
+	/**
+	 * Get the binding of a record class
+	 *
+	 * @param recordClassName the name of the record class
+	 * @return the binding of the record class, or {@code null} if it is not bound
+	 */
+	@Nullable RecordBinding get(@NotNull String recordClassName) {
+		return this.bindings.get(recordClassName);
+	}
+
+	/**
+	 * Bind a record class, only if it has not been bound yet
+	 *
+	 * @param recordClassName the name of the record class
+	 * @param recordBinding   the binding to add
+	 * @return {@code true} if the binding was added, {@code false} if the record class was already bound
+	 */
+	synchronized boolean bind(@NotNull String recordClassName, @NotNull RecordBinding recordBinding) {
+		if (this.bindings.containsKey(recordClassName)) return false;
+
+		this.rebind(recordClassName, recordBinding);
+		return true;
+	}
+
+	/**
+	 * Bind a record class, replacing its current binding if there is one
+	 *
+	 * @param recordClassName the name of the record class
+	 * @param recordBinding   the binding to set
+	 */
+	synchronized void rebind(@NotNull String recordClassName, @NotNull RecordBinding recordBinding) {
+		final Map<String, RecordBinding> bindings = new HashMap<>(this.bindings);
+		bindings.put(recordClassName, recordBinding);
+		this.bindings = Map.copyOf(bindings);
+	}
+
+	/**
+	 * Unbind a record class
+	 *
+	 * @param recordClassName the name of the record class
+	 * @return the removed binding, or {@code null} if the record class was not bound
+	 */
+	synchronized @Nullable RecordBinding unbind(@NotNull String recordClassName) {
+		if (!this.bindings.containsKey(recordClassName)) return null;
+
+		final Map<String, RecordBinding> bindings = new HashMap<>(this.bindings);
+		final RecordBinding recordBinding = bindings.remove(recordClassName);
+		this.bindings = Map.copyOf(bindings);
+		return recordBinding;
+	}
+
+	/**
+	 * Get a snapshot of all bindings
+	 *
+	 * @return an immutable map of the record class names and their bindings
+	 */
+	@NotNull Map<String, RecordBinding> getBindings() {
+		return this.bindings;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record;
+
+import com.xcodiq.packet.internal.IncomingPacket;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Represents an incoming packet of a record on its way to the bound record handler
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+@Getter
+final class RecordRequest {
+
+	private final String channel;
+	private final UUID recordId;
+	private final IncomingPacket incomingPacket;
+	private final RecordBinding recordBinding;
+	private final CancellationToken cancellationToken;
+	private final boolean addressed; // whether the packet was routed to the inbox of this instance, instead of broadcast
+
+	private final long receivedAt; // the System#nanoTime the packet was received at
+
+	RecordRequest(String channel, UUID recordId, IncomingPacket incomingPacket, RecordBinding recordBinding,
+	              CancellationToken cancellationToken, boolean addressed) {
+		this.channel = channel;
+		this.recordId = recordId;
+		this.incomingPacket = incomingPacket;
+		this.recordBinding = recordBinding;
+		this.cancellationToken = cancellationToken;
+		this.addressed = addressed;
+		this.receivedAt = System.nanoTime();
+	}
+}
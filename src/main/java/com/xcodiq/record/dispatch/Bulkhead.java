@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.dispatch;
+
+import com.xcodiq.record.RecordPriority;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * A bulkhead limits the amount of concurrently running handlers of a record type, and bounds
+ * the amount of packets waiting for a free slot. Packets arriving while the queue is full are rejected.
+ * <p>
+ * Queued packets are kept per priority, a free slot goes to the oldest packet of the highest priority waiting
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @apiNote A bulkhead instance can be shared between several record bindings to limit them as a group
+ * @since 1.0
+ */
+public final class Bulkhead {
+
+	private final int maxConcurrent;
+	private final int maxQueued;
+
+	private final Queue<Runnable>[] queues; // the queued tasks per priority, each one executing its task on its own lane
+	private int running, queued;
+
+	@SuppressWarnings("unchecked")
+	public Bulkhead(int maxConcurrent, int maxQueued) {
+		if (maxConcurrent < 1) throw new IllegalArgumentException("The maximum concurrency of a bulkhead must be positive");
+		if (maxQueued < 0) throw new IllegalArgumentException("The maximum queue size of a bulkhead can not be negative");
+
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueued = maxQueued;
+
+		this.queues = (Queue<Runnable>[]) new Queue<?>[RecordPriority.values().length];
+		for (int i = 0; i < this.queues.length; i++) this.queues[i] = new ArrayDeque<>();
+	}
+
+	@Contract(value = "_, _ -> new", pure = true)
+	public static @NotNull Bulkhead of(int maxConcurrent, int maxQueued) {
+		return new Bulkhead(maxConcurrent, maxQueued);
+	}
+
+	/**
+	 * Submit a task to the bulkhead, it is executed right away when a slot is free and queued otherwise
+	 *
+	 * @param task     the task to submit, it must call {@link Bulkhead#release()} once it is fully done
+	 * @param priority the priority of the task, queued tasks of a higher priority are executed first
+	 * @param executor the executor to execute the task on, also once it has been queued
+	 * @return {@code true} if the task was accepted, {@code false} if the bulkhead is full
+	 */
+	public boolean submit(@NotNull Runnable task, @NotNull RecordPriority priority, @NotNull Executor executor) {
+		synchronized (this) {
+			if (this.running >= this.maxConcurrent) {
+				// Queue the task if there is room left, reject it otherwise
+				if (this.queued >= this.maxQueued) return false;
+				this.queued++;
+				return this.queues[priority.ordinal()].offer(() -> executor.execute(task));
+			}
+			this.running++;
+		}
+
+		executor.execute(task);
+		return true;
+	}
+
+	/**
+	 * Release the slot of a finished task, and execute the next queued task in it on the executor it was submitted with
+	 */
+	public void release() {
+		Runnable next = null;
+		synchronized (this) {
+			for (Queue<Runnable> queue : this.queues) {
+				if ((next = queue.poll()) != null) break;
+			}
+			if (next == null) this.running--;
+			else this.queued--;
+		}
+
+		if (next != null) next.run();
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public int getMaxQueued() {
+		return maxQueued;
+	}
+
+	public synchronized int getRunning() {
+		return running;
+	}
+
+	public synchronized int getQueued() {
+		return queued;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.dispatch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load shedder decides whether a received packet is still worth handling, based on the time it waited in the queue.
+ * <p>
+ * Packets waiting longer than the maximum queue time are always shed. When adaptive shedding is enabled the shedder
+ * also starts shedding once the queue time stayed above its target for a full interval (CoDel-style), and keeps doing
+ * so until a packet gets through under the target again, so a standing queue is drained instead of served late.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class LoadShedder {
+
+	private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final long maxQueueNanos;
+	private final boolean adaptive;
+
+	private long firstAboveTarget; // the time the queue time first went above the target, 0 if it is below
+	private boolean shedding;
+
+	/**
+	 * Constructs a new load shedder
+	 *
+	 * @param maxQueueNanos the maximum queue time in nanoseconds, {@code 0} for no maximum
+	 * @param adaptive      whether to shed based on a standing queue as well
+	 */
+	public LoadShedder(long maxQueueNanos, boolean adaptive) {
+		this.maxQueueNanos = maxQueueNanos;
+		this.adaptive = adaptive;
+	}
+
+	/**
+	 * Check if a packet should be shed instead of being handled
+	 *
+	 * @param queueNanos the time the packet waited in the queue, in nanoseconds
+	 * @param now        the current {@link System#nanoTime()}
+	 * @return {@code true} if the packet should be shed, {@code false} otherwise
+	 */
+	public boolean shouldShed(long queueNanos, long now) {
+		if (this.maxQueueNanos > 0 && queueNanos > this.maxQueueNanos) return true;
+		if (!this.adaptive) return false;
+
+		synchronized (this) {
+			// The queue time is fine, stop shedding
+			if (queueNanos < TARGET_NANOS) {
+				this.firstAboveTarget = 0;
+				this.shedding = false;
+				return false;
+			}
+
+			// The queue time went above the target, only shed when it stays there for a full interval
+			if (this.firstAboveTarget == 0) {
+				this.firstAboveTarget = now;
+				return false;
+			}
+
+			if (now - this.firstAboveTarget >= INTERVAL_NANOS) this.shedding = true;
+			return this.shedding;
+		}
+	}
+}
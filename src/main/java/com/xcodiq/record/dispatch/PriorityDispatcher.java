@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.dispatch;
+
+import com.xcodiq.record.RecordPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * A priority dispatcher keeps a queue per record priority in front of an executor. Every submitted task schedules one
+ * run on the executor, which takes the next task by priority instead of the submitted one, so the executor
+ * queue is effectively ordered by priority regardless of the type of executor.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class PriorityDispatcher {
+
+	private static final RecordPriority[] PRIORITIES = RecordPriority.values();
+
+	private final Executor executor;
+	private final PriorityScheduling scheduling;
+
+	private final Queue<Runnable>[] lanes;
+	private final Executor[] laneExecutors;
+	private final int[] currentWeights; // the smooth weighted round-robin state of every lane
+	private int queued;
+
+	@SuppressWarnings("unchecked")
+	public PriorityDispatcher(@NotNull Executor executor, @NotNull PriorityScheduling scheduling) {
+		this.executor = executor;
+		this.scheduling = scheduling;
+
+		this.lanes = (Queue<Runnable>[]) new Queue<?>[PRIORITIES.length];
+		this.laneExecutors = new Executor[PRIORITIES.length];
+		this.currentWeights = new int[PRIORITIES.length];
+		for (final RecordPriority priority : PRIORITIES) {
+			this.lanes[priority.ordinal()] = new ArrayDeque<>();
+			this.laneExecutors[priority.ordinal()] = task -> this.execute(task, priority);
+		}
+	}
+
+	/**
+	 * Execute a task once it is its turn by priority
+	 *
+	 * @param task     the task to execute
+	 * @param priority the priority of the task
+	 */
+	public void execute(@NotNull Runnable task, @NotNull RecordPriority priority) {
+		synchronized (this) {
+			this.lanes[priority.ordinal()].offer(task);
+			this.queued++;
+		}
+
+		this.executor.execute(this::runNext);
+	}
+
+	/**
+	 * Get an executor executing its tasks with a specific priority
+	 *
+	 * @param priority the priority of the executor
+	 * @return the executor of the priority
+	 */
+	public @NotNull Executor forPriority(@NotNull RecordPriority priority) {
+		return this.laneExecutors[priority.ordinal()];
+	}
+
+	/**
+	 * Get the amount of tasks waiting for their turn
+	 *
+	 * @return the amount of queued tasks
+	 */
+	public synchronized int getQueued() {
+		return queued;
+	}
+
+	private void runNext() {
+		final Runnable task;
+		synchronized (this) {
+			task = this.poll();
+			if (task != null) this.queued--;
+		}
+
+		if (task != null) task.run();
+	}
+
+	private Runnable poll() {
+		if (this.scheduling == PriorityScheduling.STRICT) {
+			// Take the task of the highest priority
+			for (final Queue<Runnable> lane : this.lanes) {
+				if (!lane.isEmpty()) return lane.poll();
+			}
+			return null;
+		}
+
+		// Take the task of the lane with the highest current weight (smooth weighted round-robin)
+		int totalWeight = 0, selected = -1;
+		for (int i = 0; i < this.lanes.length; i++) {
+			if (this.lanes[i].isEmpty()) continue;
+
+			this.currentWeights[i] += PRIORITIES[i].getWeight();
+			totalWeight += PRIORITIES[i].getWeight();
+			if (selected == -1 || this.currentWeights[i] > this.currentWeights[selected]) selected = i;
+		}
+		if (selected == -1) return null;
+
+		this.currentWeights[selected] -= totalWeight;
+		return this.lanes[selected].poll();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.limit;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * An adaptive limiter bounds the amount of in-flight records, adjusting its limit from the measured reply latency.
+ * <p>
+ * The limit follows a gradient: it grows while the latency stays close to the lowest latency seen (no queueing),
+ * and shrinks proportionally once the latency rises, as that means requests start to queue up at the receiver.
+ * Dropped records (timeouts, rejections) shrink the limit multiplicatively.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class AdaptiveLimiter {
+
+	private static final double SMOOTHING = 0.2; // how fast the limit moves towards a new estimate
+	private static final double BACKOFF_RATIO = 0.9; // the limit multiplier when a record is dropped
+	private static final int PROBE_INTERVAL = 1000; // the amount of samples after which the no-load latency is probed again
+
+	private final int minLimit, maxLimit, maxQueued;
+	private final Queue<Runnable> queue = new ArrayDeque<>();
+
+	private double limit;
+	private int inFlight;
+
+	private long rttNoLoad; // the lowest latency seen in the current probe interval, in nanoseconds
+	private long samples;
+
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueued) {
+		if (minLimit < 1 || minLimit > maxLimit) throw new IllegalArgumentException("Invalid limiter bounds: " + minLimit + " - " + maxLimit);
+		if (maxQueued < 0) throw new IllegalArgumentException("The maximum queue size of a limiter can not be negative");
+
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueued = maxQueued;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	public AdaptiveLimiter(int maxQueued) {
+		this(20, 1, 1000, maxQueued);
+	}
+
+	/**
+	 * Submit a task to the limiter, it is executed right away when the limit allows it and queued otherwise
+	 *
+	 * @param task the task to submit, the limiter must be notified once its record is done
+	 * @return {@code true} if the task was accepted, {@code false} if the limiter is full
+	 * @see AdaptiveLimiter#onSample(long)
+	 * @see AdaptiveLimiter#onDropped()
+	 * @see AdaptiveLimiter#release()
+	 */
+	public boolean submit(@NotNull Runnable task) {
+		synchronized (this) {
+			if (this.inFlight >= (int) this.limit) {
+				// Queue the task if there is room left, reject it otherwise
+				if (this.queue.size() >= this.maxQueued) return false;
+				return this.queue.offer(task);
+			}
+			this.inFlight++;
+		}
+
+		task.run();
+		return true;
+	}
+
+	/**
+	 * Notify the limiter a record received its reply
+	 *
+	 * @param rttNanos the time between sending the record and receiving its reply, in nanoseconds
+	 */
+	public void onSample(long rttNanos) {
+		synchronized (this) {
+			// Update the no-load latency, and probe it again once in a while so it follows lasting changes
+			if (this.rttNoLoad == 0 || rttNanos < this.rttNoLoad || ++this.samples % PROBE_INTERVAL == 0) {
+				this.rttNoLoad = Math.max(1, rttNanos);
+			}
+
+			// Only adjust the limit when it is actually being used, otherwise latency says nothing about it
+			if (this.inFlight * 2 >= this.limit) {
+				final double gradient = Math.max(0.5, Math.min(1.0, this.rttNoLoad / (double) Math.max(1, rttNanos)));
+				final double newLimit = this.limit * gradient + Math.sqrt(this.limit);
+				this.setLimit(this.limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+			}
+		}
+
+		this.release();
+	}
+
+	/**
+	 * Notify the limiter a record was dropped, because it timed out or was rejected
+	 */
+	public void onDropped() {
+		synchronized (this) {
+			this.setLimit(this.limit * BACKOFF_RATIO);
+		}
+
+		this.release();
+	}
+
+	/**
+	 * Release the slot of a record without adjusting the limit, and execute the queued tasks the limit allows
+	 */
+	public void release() {
+		final List<Runnable> next = new ArrayList<>(1);
+		synchronized (this) {
+			this.inFlight--;
+			while (this.inFlight < (int) this.limit && !this.queue.isEmpty()) {
+				this.inFlight++;
+				next.add(this.queue.poll());
+			}
+		}
+
+		next.forEach(Runnable::run);
+	}
+
+	private void setLimit(double limit) {
+		this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+	}
+
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	public synchronized int getQueued() {
+		return queue.size();
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.limit;
+
+import java.util.Arrays;
+
+/**
+ * A latency tracker keeps a window of the most recent reply latencies of a record type, to estimate its percentiles.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class LatencyTracker {
+
+	private static final int WINDOW_SIZE = 256;
+	private static final int MIN_SAMPLES = 20; // the amount of samples needed before percentiles are estimated
+
+	private final long[] window = new long[WINDOW_SIZE];
+	private long samples;
+
+	/**
+	 * Record a new latency sample
+	 *
+	 * @param latencyNanos the latency in nanoseconds
+	 */
+	public synchronized void record(long latencyNanos) {
+		this.window[(int) (this.samples++ % WINDOW_SIZE)] = latencyNanos;
+	}
+
+	/**
+	 * Estimate a percentile of the recent latencies
+	 *
+	 * @param percentile the percentile to estimate, between {@code 0} and {@code 1}
+	 * @return the estimated latency in nanoseconds, or {@code -1} if there are not enough samples yet
+	 */
+	public long getPercentile(double percentile) {
+		final long[] sorted;
+		synchronized (this) {
+			if (this.samples < MIN_SAMPLES) return -1;
+			sorted = Arrays.copyOf(this.window, (int) Math.min(this.samples, WINDOW_SIZE));
+		}
+
+		Arrays.sort(sorted);
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.limit;
+
+/**
+ * A retry budget is a token bucket which is filled by regular records and drained by retries (or hedges).
+ * <p>
+ * Every record deposits a fraction of a token, so the retries of an instance stay proportional to its own traffic.
+ * As every instance keeps to this ratio, the retries of the whole cluster can never exceed the same ratio of its traffic,
+ * no matter how many instances there are. A small amount of tokens per second is added so idle senders can still retry,
+ * this amount is added by every instance, as is the maximum amount of tokens saved up. A ratio of {@code 0} never allows a retry.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class RetryBudget {
+
+	private final double ratio;
+	private final double minPerSecond; // the tokens added per second, regardless of traffic
+	private final double maxTokens; // the maximum amount of tokens saved up
+
+	private double tokens;
+	private long lastRefill = System.nanoTime();
+
+	/**
+	 * Constructs a new retry budget
+	 *
+	 * @param ratio        the fraction of a token deposited for every record, e.g. {@code 0.1} allows 10% extra records
+	 * @param minPerSecond the tokens added per second, regardless of traffic
+	 * @param maxTokens    the maximum amount of tokens saved up
+	 */
+	public RetryBudget(double ratio, double minPerSecond, int maxTokens) {
+		if (ratio < 0) throw new IllegalArgumentException("The retry budget ratio can not be negative");
+		if (minPerSecond < 0) throw new IllegalArgumentException("The retry budget minimum can not be negative");
+		if (maxTokens < 1) throw new IllegalArgumentException("The retry budget maximum must be at least 1");
+		this.ratio = ratio;
+		this.minPerSecond = minPerSecond;
+		this.maxTokens = maxTokens;
+	}
+
+	/**
+	 * Deposit the share of a sent record into the budget
+	 */
+	public synchronized void deposit() {
+		this.tokens = Math.min(this.maxTokens, this.tokens + this.ratio);
+	}
+
+	/**
+	 * Try to withdraw a token for a retry
+	 *
+	 * @return {@code true} if a token was withdrawn and the retry may be sent, {@code false} otherwise
+	 */
+	public synchronized boolean tryWithdraw() {
+		if (this.ratio == 0) return false;
+
+		// Add the tokens of the time passed since the last refill
+		final long now = System.nanoTime();
+		this.tokens = Math.min(this.maxTokens, this.tokens + (now - this.lastRefill) / 1e9 * this.minPerSecond);
+		this.lastRefill = now;
+
+		if (this.tokens < 1) return false;
+		this.tokens--;
+		return true;
+	}
+}
@@ -0,0 +1,420 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.relay;
+
+import com.xcodiq.lettuce.LettuceManager;
+import com.xcodiq.packet.PacketStatus;
+import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.packet.internal.ClaimCheckPacket;
+import com.xcodiq.packet.internal.IncomingPacket;
+import com.xcodiq.packet.listener.PacketListener;
+import com.xcodiq.packet.serialization.ChunkAssembler;
+import com.xcodiq.packet.serialization.PacketCodec;
+import com.xcodiq.rpc.RPC;
+import com.xcodiq.util.collection.ExpiringMap;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A relay forwards the records published on one redis instance to another, e.g. on a gateway node between regions,
+ * and forwards the replies and cancels of those records back. Records are forwarded without being decoded: only the
+ * header of the envelope (hop count, deadline and the node ids of the sender) is rewritten, the serialized packet and
+ * its binary payload are copied as they are, and replies are forwarded verbatim on the lane of their record.
+ * <p>
+ * Every relay increments the hop count of a record, records that reached the maximum hop count are not forwarded
+ * again, so two relays in opposite directions do not bounce records between them. Records routed to the inbox of a
+ * single node are not forwarded, the node ids of one redis instance mean nothing to the other.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class RecordRelay {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RecordRelay.class);
+
+	private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(1); // how long replies are forwarded for records without a deadline
+	private static final long TTL_SLACK = TimeUnit.SECONDS.toMillis(1); // the time to live of copied claim checks beyond the deadline
+	private static final long MAX_REASSEMBLY_BYTES = 64 * 1024 * 1024; // the maximum size of all chunked records being reassembled
+	private static final int MAX_CLAIM_CHECK_SIZE = 4096; // claim checks are small, larger messages are never searched for one
+	private static final byte[] CLAIM_CHECK_CLASS = ClaimCheckPacket.class.getName().getBytes(StandardCharsets.UTF_8);
+
+	private final LettuceManager source, target;
+	private final PacketCodec codec;
+	private final String recordPrefix;
+	private final ChunkAssembler chunkAssembler;
+	private final ExpiringMap<UUID, Integer> relayedRecords = new ExpiringMap<>(); // the lanes of the records whose replies are forwarded back
+
+	private String targetPrefix; // the record prefix records are forwarded to
+	private int chunkSize = 0; // the size in bytes above which records are split into chunks on the target, 0 to never split
+	private int maxHops = 1; // the maximum amount of relays a record passes through
+	private long transitMargin = 0; // the millis the deadline of a forwarded record is shortened by
+
+	private StatefulRedisPubSubConnection<String, byte[]> sourceConnection, targetConnection;
+
+	/**
+	 * Constructs a new relay, it does nothing until it has been started
+	 *
+	 * @param source       the lettuce manager of the redis instance to forward records from
+	 * @param target       the lettuce manager of the redis instance to forward records to
+	 * @param recordPrefix the record prefix of the forwarded records
+	 * @param codec        the codec to rewrite envelope headers with
+	 * @param scheduler    the scheduler to expire reassembled chunks and relayed records on
+	 */
+	public RecordRelay(@NotNull LettuceManager source, @NotNull LettuceManager target, @NotNull String recordPrefix,
+	                   @NotNull PacketCodec codec, @NotNull ScheduledExecutorService scheduler) {
+		this.source = source;
+		this.target = target;
+		this.recordPrefix = recordPrefix;
+		this.targetPrefix = recordPrefix;
+		this.codec = codec;
+		this.chunkAssembler = new ChunkAssembler(MAX_REASSEMBLY_BYTES, scheduler, 10, TimeUnit.SECONDS);
+		this.relayedRecords.setScheduler(scheduler);
+	}
+
+	/**
+	 * Constructs a new relay forwarding the records of a rpc instance to another redis instance
+	 *
+	 * @param rpc    the rpc instance to forward the records of
+	 * @param target the lettuce manager of the redis instance to forward records to
+	 */
+	public RecordRelay(@NotNull RPC<?> rpc, @NotNull LettuceManager target) {
+		this(rpc.getLettuceManager(), target, rpc.getOptions().getRecordPrefix(), rpc.getCodec(), rpc.getScheduler());
+		this.chunkSize = rpc.getOptions().getChunkSize();
+	}
+
+	/**
+	 * Set the record prefix records are forwarded to, the record prefix of the source by default
+	 *
+	 * @param targetPrefix the record prefix on the target
+	 * @return the relay instance, for chaining
+	 */
+	public RecordRelay setTargetPrefix(@NotNull String targetPrefix) {
+		this.targetPrefix = targetPrefix;
+		return this;
+	}
+
+	/**
+	 * Set the size above which records are split into chunks when they are forwarded to the target, chunked records
+	 * are reassembled before they are forwarded. The chunk size of the rpc instance by default, if it has been given
+	 *
+	 * @param chunkSize the chunk size in bytes, {@code 0} to never split records
+	 * @return the relay instance, for chaining
+	 */
+	public RecordRelay setChunkSize(int chunkSize) {
+		if (chunkSize < 0) throw new IllegalArgumentException("The chunk size can not be negative");
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Set the maximum amount of relays a record passes through, {@code 1} by default
+	 *
+	 * @param maxHops the maximum hop count
+	 * @return the relay instance, for chaining
+	 */
+	public RecordRelay setMaxHops(int maxHops) {
+		if (maxHops < 1) throw new IllegalArgumentException("The maximum hop count must be at least 1");
+		this.maxHops = maxHops;
+		return this;
+	}
+
+	/**
+	 * Set the time the deadline of a forwarded record is shortened by, to account for the time the reply
+	 * needs to travel back. Records with less time left are dropped
+	 *
+	 * @param transitMargin the margin
+	 * @param timeUnit      the time unit of the margin
+	 * @return the relay instance, for chaining
+	 */
+	public RecordRelay setTransitMargin(long transitMargin, @NotNull TimeUnit timeUnit) {
+		if (transitMargin < 0) throw new IllegalArgumentException("The transit margin can not be negative");
+		this.transitMargin = timeUnit.toMillis(transitMargin);
+		return this;
+	}
+
+	/**
+	 * Start forwarding records to the target, and their replies and cancels
+	 */
+	public synchronized void start() {
+		if (this.sourceConnection != null) return;
+
+		final String cancelPrefix = "cancel." + this.recordPrefix;
+		this.sourceConnection = this.source.connectPubSub();
+		this.sourceConnection.addListener(new PacketListener(this.recordPrefix + ".") {
+			@Override
+			public void process(String channel, byte[] message) {
+				relayRecord(channel, message);
+			}
+		});
+		this.sourceConnection.addListener(new PacketListener(cancelPrefix + ".") {
+			@Override
+			public void process(String channel, byte[] message) {
+				relayCancel(channel, message);
+			}
+		});
+		this.sourceConnection.async().psubscribe(this.recordPrefix + ".*", cancelPrefix + ".*");
+
+		final String replyPrefix = "reply." + this.targetPrefix;
+		this.targetConnection = this.target.connectPubSub();
+		this.targetConnection.addListener(new PacketListener(replyPrefix + ".") {
+			@Override
+			public void process(String channel, byte[] message) {
+				relayReply(channel, message);
+			}
+		});
+		this.targetConnection.async().psubscribe(replyPrefix + ".*");
+
+		LOG.info("Relaying records of '{}' to '{}'", this.recordPrefix, this.targetPrefix);
+	}
+
+	/**
+	 * Stop forwarding records, replies of records that have already been forwarded are no longer forwarded back
+	 */
+	public synchronized void shutdown() {
+		if (this.sourceConnection == null) return;
+
+		this.sourceConnection.close();
+		this.targetConnection.close();
+		this.sourceConnection = null;
+		this.targetConnection = null;
+	}
+
+	/**
+	 * Forward a record to the target, rewriting only the header of its envelope
+	 *
+	 * @param channel the channel the record was published on
+	 * @param message the encoded envelope, or a chunk of it
+	 */
+	private void relayRecord(String channel, byte[] message) {
+		final byte[] fullMessage = ChunkAssembler.isChunk(message) ? this.chunkAssembler.accept(message) : message;
+		if (fullMessage == null) return;
+
+		final UUID recordId = recordIdOf(channel);
+		if (recordId == null) return;
+
+		final IncomingPacket header;
+		try {
+			header = this.codec.decodeIncomingPacketHeader(fullMessage);
+		} catch (RuntimeException exception) {
+			LOG.error("Unable to relay a record published on: " + channel, exception);
+			return;
+		}
+
+		try {
+			// Drop records that have been relayed enough, or whose sender stops waiting before they can be answered
+			if (header.getHops() >= this.maxHops) return;
+			if (header.getDeadline() > 0) header.setDeadline(header.getDeadline() - this.transitMargin);
+			if (header.isExpired()) return;
+			header.setHops(header.getHops() + 1);
+
+			// The node ids of the source mean nothing on the target, its nodes must not take the sender for one of theirs
+			header.setOrigin(null);
+			header.setSenderNode(null);
+
+			// Forward the replies of the record back on its lane, one-way records have none
+			final int lane = header.getPriority().getLane();
+			if (!header.isOneWay()) this.track(recordId, header.getDeadline(), lane);
+
+			final byte[] relayedMessage = this.codec.reencodeIncomingPacket(fullMessage, header);
+			final String targetChannel = this.targetPrefix + channel.substring(this.recordPrefix.length());
+			final long deadline = header.getDeadline();
+
+			this.copyClaimCheck(relayedMessage, this::claimCheckOfRecord, this.source, this.target, deadline, lane)
+					.whenComplete((ignored, throwable) -> {
+						if (throwable == null) {
+							this.publish(this.target, targetChannel, relayedMessage, lane);
+							return;
+						}
+
+						// The record has been broadcast, other instances on the source may still reply to it
+						LOG.error("Unable to relay record " + recordId + ", the packet of its claim check is gone", throwable);
+						this.untrack(recordId);
+					});
+		} finally {
+			this.codec.recycle(header);
+		}
+	}
+
+	/**
+	 * Forward the cancel of a forwarded record to the target
+	 *
+	 * @param channel the channel the cancel was published on
+	 * @param message the cancel message
+	 */
+	private void relayCancel(String channel, byte[] message) {
+		final UUID recordId = recordIdOf(channel);
+		final Integer lane = recordId == null ? null : this.laneOf(recordId);
+		if (lane == null) return;
+
+		this.target.publish("cancel." + this.targetPrefix + "." + recordId, message, lane);
+	}
+
+	/**
+	 * Forward a reply of a forwarded record back to the source, chunks of a reply are forwarded as they are
+	 *
+	 * @param channel the channel the reply was published on
+	 * @param message the encoded reply, or a chunk of it
+	 */
+	private void relayReply(String channel, byte[] message) {
+		final UUID recordId = recordIdOf(channel);
+		final Integer lane = recordId == null ? null : this.laneOf(recordId);
+		if (lane == null) return;
+
+		// The reply channel ends with the channel of the record, map it back to the record prefix of the source
+		final String recordChannel = channel.substring(("reply." + this.targetPrefix + ".").length());
+		if (!recordChannel.startsWith(this.targetPrefix)) return;
+		final String sourceChannel = "reply." + this.recordPrefix + "." + this.recordPrefix + recordChannel.substring(this.targetPrefix.length());
+
+		this.copyClaimCheck(message, this.codec::decode, this.target, this.source, 0, lane)
+				.whenComplete((ignored, throwable) -> {
+					if (throwable == null) {
+						this.source.publish(sourceChannel, message, lane);
+						return;
+					}
+
+					// The reply is addressed to the sender alone, let it know the reply is lost instead of letting it wait
+					LOG.error("Unable to relay a reply of record " + recordId + ", the packet of its claim check is gone", throwable);
+					final RedisPacket statusPacket = new RedisPacket(PacketStatus.BAD_GATEWAY);
+					statusPacket.setRecordId(recordId);
+					statusPacket.setReplyPacket(true);
+					this.source.publish(sourceChannel, this.codec.encode(statusPacket), lane);
+				});
+	}
+
+	/**
+	 * Publish a message, split into chunks if it is larger than the chunk size
+	 *
+	 * @param to      the redis instance to publish the message on
+	 * @param channel the channel to publish the message to
+	 * @param message the message to publish
+	 * @param lane    the lane to publish the message on, all chunks are published on the same connection
+	 */
+	private void publish(LettuceManager to, String channel, byte[] message, int lane) {
+		if (this.chunkSize == 0 || message.length <= this.chunkSize) {
+			to.publish(channel, message, lane);
+			return;
+		}
+
+		for (byte[] chunk : ChunkAssembler.split(message, this.chunkSize)) to.publish(channel, chunk, lane);
+	}
+
+	private @Nullable RedisPacket claimCheckOfRecord(byte[] message) {
+		final IncomingPacket incomingPacket = this.codec.decodeIncomingPacket(message);
+		return incomingPacket == null ? null : this.codec.deserialize(incomingPacket.getSerializedPacket());
+	}
+
+	/**
+	 * Copy the packet of a claim check to the other redis instance, the receivers there fetch it from their own
+	 *
+	 * @param message  the message to forward
+	 * @param decoder  decodes the packet of the message, only called if the message may be a claim check
+	 * @param from     the redis instance the claim check was published on
+	 * @param to       the redis instance the claim check is forwarded to
+	 * @param deadline the epoch millis the packet is no longer needed after, {@code 0} if unknown
+	 * @param lane     the lane the message is going to be forwarded on, the packet is stored on the same one
+	 * @return a stage completing once the message can be forwarded, or completing exceptionally if the packet is gone
+	 */
+	private CompletionStage<Void> copyClaimCheck(byte[] message, Function<byte[], RedisPacket> decoder, LettuceManager from,
+	                                             LettuceManager to, long deadline, int lane) {
+		if (message.length > MAX_CLAIM_CHECK_SIZE || ChunkAssembler.isChunk(message) || !contains(message, CLAIM_CHECK_CLASS)) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		final RedisPacket packet = decoder.apply(message);
+		if (!(packet instanceof ClaimCheckPacket)) return CompletableFuture.completedFuture(null);
+
+		final String key = ((ClaimCheckPacket) packet).getKey();
+		final long packetDeadline = deadline > 0 ? deadline : packet.getDeadline() == null ? 0 : packet.getDeadline().toEpochMilli();
+		final long ttl = packetDeadline > 0 ? Math.max(0, packetDeadline - System.currentTimeMillis()) + TTL_SLACK : DEFAULT_TTL;
+
+		final CompletableFuture<Void> copied = new CompletableFuture<>();
+		from.fetch(key).whenComplete((value, throwable) -> {
+			if (value == null) {
+				copied.completeExceptionally(throwable != null ? throwable
+						: new IllegalStateException("The packet of claim check " + key + " is missing or expired"));
+				return;
+			}
+			to.store(key, value, ttl, lane);
+			copied.complete(null);
+		});
+		return copied;
+	}
+
+	private void track(UUID recordId, long deadline, int lane) {
+		final long ttl = deadline > 0 ? Math.max(0, deadline - System.currentTimeMillis()) + TTL_SLACK : DEFAULT_TTL;
+		synchronized (this.relayedRecords) {
+			if (!this.relayedRecords.containsKey(recordId)) {
+				this.relayedRecords.put(recordId, lane, (int) Math.min(Integer.MAX_VALUE, ttl), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private void untrack(UUID recordId) {
+		synchronized (this.relayedRecords) {
+			this.relayedRecords.remove(recordId);
+		}
+	}
+
+	/**
+	 * Get the lane of a forwarded record
+	 *
+	 * @param recordId the id of the record
+	 * @return the lane the record was forwarded on, or {@code null} if it has not been forwarded (or expired)
+	 */
+	private @Nullable Integer laneOf(UUID recordId) {
+		synchronized (this.relayedRecords) {
+			return this.relayedRecords.get(recordId);
+		}
+	}
+
+	private static @Nullable UUID recordIdOf(String channel) {
+		try {
+			return UUID.fromString(channel.substring(channel.lastIndexOf('.') + 1));
+		} catch (IllegalArgumentException ignored) {
+			return null;
+		}
+	}
+
+	private static boolean contains(byte[] message, byte[] sequence) {
+		outer:
+		for (int i = 0; i <= message.length - sequence.length; i++) {
+			for (int j = 0; j < sequence.length; j++) if (message[i + j] != sequence[j]) continue outer;
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.routing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The way records without a routing key are sent to the nodes handling them.
+ * <p>
+ * The advertised load of a node is only as recent as its last heartbeat, so the records a sender has outstanding
+ * at a node are counted as well. This keeps all senders from piling onto the same idle node in between heartbeats.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public enum LoadBalancing {
+
+	/**
+	 * Every record is broadcast to all instances, the first reply completes it
+	 */
+	BROADCAST {
+		@Override
+		public @Nullable String select(@NotNull List<String> nodes, @NotNull ToIntFunction<String> outstanding,
+		                               @NotNull Function<String, NodeLoad> loads) {
+			return null;
+		}
+	},
+
+	/**
+	 * Every record is sent to the less loaded node out of two random nodes, the load being the outstanding
+	 * records of a node weighted by its recent latency. It avoids herding while adapting to slower nodes.
+	 */
+	POWER_OF_TWO_CHOICES {
+		@Override
+		public @Nullable String select(@NotNull List<String> nodes, @NotNull ToIntFunction<String> outstanding,
+		                               @NotNull Function<String, NodeLoad> loads) {
+			if (nodes.size() < 2) return nodes.isEmpty() ? null : nodes.get(0);
+
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			final int first = random.nextInt(nodes.size());
+			final int second = (first + 1 + random.nextInt(nodes.size() - 1)) % nodes.size();
+
+			final String firstNode = nodes.get(first), secondNode = nodes.get(second);
+			final NodeLoad firstLoad = loads.apply(firstNode), secondLoad = loads.apply(secondNode);
+
+			// A node that has not measured its latency yet is weighted as an average node, not as the fastest one
+			final long defaultLatency = firstLoad.getLatency() > 0 && secondLoad.getLatency() > 0 ? 1 : meanLatency(nodes, loads);
+			return cost(firstNode, firstLoad, outstanding, defaultLatency) <= cost(secondNode, secondLoad, outstanding, defaultLatency)
+					? firstNode : secondNode;
+		}
+
+		private double cost(String node, NodeLoad load, ToIntFunction<String> outstanding, long defaultLatency) {
+			final long latency = load.getLatency() > 0 ? load.getLatency() : defaultLatency;
+			return (load.getOutstanding() + outstanding.applyAsInt(node) + 1) * (double) latency;
+		}
+
+		private long meanLatency(List<String> nodes, Function<String, NodeLoad> loads) {
+			long totalLatency = 0;
+			int knownNodes = 0;
+			for (String node : nodes) {
+				final long latency = loads.apply(node).getLatency();
+				if (latency <= 0) continue;
+				totalLatency += latency;
+				knownNodes++;
+			}
+			return knownNodes == 0 ? 1 : Math.max(totalLatency / knownNodes, 1);
+		}
+	},
+
+	/**
+	 * Every record is sent to the node with the least outstanding records
+	 */
+	LEAST_OUTSTANDING {
+		@Override
+		public @Nullable String select(@NotNull List<String> nodes, @NotNull ToIntFunction<String> outstanding,
+		                               @NotNull Function<String, NodeLoad> loads) {
+			String selectedNode = null;
+			int selectedOutstanding = Integer.MAX_VALUE;
+			for (String node : nodes) {
+				final int nodeOutstanding = loads.apply(node).getOutstanding() + outstanding.applyAsInt(node);
+				if (nodeOutstanding < selectedOutstanding) {
+					selectedNode = node;
+					selectedOutstanding = nodeOutstanding;
+				}
+			}
+			return selectedNode;
+		}
+	};
+
+	/**
+	 * Select the node to send a record to
+	 *
+	 * @param nodes       the nodes able to handle the record
+	 * @param outstanding the amount of records this sender has outstanding at a node
+	 * @param loads       the advertised load of a node, {@link NodeLoad#IDLE} if it has not advertised any
+	 * @return the node to send the record to, or {@code null} to broadcast it
+	 */
+	public abstract @Nullable String select(@NotNull List<String> nodes, @NotNull ToIntFunction<String> outstanding,
+	                                        @NotNull Function<String, NodeLoad> loads);
+}
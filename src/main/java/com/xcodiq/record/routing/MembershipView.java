@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.routing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * A membership view knows which nodes are able to handle a record type, it is used to route records with a routing key
+ * to the inbox of a single node instead of broadcasting them to all instances.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @see com.xcodiq.record.RecordManager#setMembershipView(MembershipView)
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface MembershipView {
+
+	/**
+	 * Get the ids of the nodes able to handle a record type
+	 *
+	 * @param recordClassName the class name of the record type
+	 * @return the node ids able to handle the record type, empty to broadcast the record instead
+	 */
+	@NotNull Collection<String> getNodes(@NotNull String recordClassName);
+
+	/**
+	 * Get the load a node has advertised, used to balance records without a routing key
+	 *
+	 * @param nodeId the id of the node
+	 * @return the advertised load of the node, {@link NodeLoad#IDLE} if it has not advertised any
+	 */
+	default @NotNull NodeLoad getLoad(@NotNull String nodeId) {
+		return NodeLoad.IDLE;
+	}
+}
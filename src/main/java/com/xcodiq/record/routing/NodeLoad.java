@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.routing;
+
+import lombok.Getter;
+
+/**
+ * The load a node advertises, so senders can steer records away from busy nodes
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+@Getter
+public final class NodeLoad {
+
+	public static final NodeLoad IDLE = new NodeLoad(0, 0, 0);
+
+	private final int queued; // the amount of received records waiting for a handler
+	private final int inFlight; // the amount of received records being handled
+	private final long latency; // the recent median time to handle a record in nanoseconds, 0 if unknown
+
+	public NodeLoad(int queued, int inFlight, long latency) {
+		this.queued = queued;
+		this.inFlight = inFlight;
+		this.latency = latency;
+	}
+
+	/**
+	 * Get the amount of records the node has not finished yet
+	 *
+	 * @return the amount of queued and in-flight records
+	 */
+	public int getOutstanding() {
+		return this.queued + this.inFlight;
+	}
+}
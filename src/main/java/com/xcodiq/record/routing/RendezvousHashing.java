@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.record.routing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Rendezvous (highest random weight) hashing picks a node for a key by scoring every node against the key
+ * and picking the node with the highest score.
+ * <p>
+ * When a node joins, it only takes over the keys it scores highest on, and when a node leaves only its own keys
+ * move to the next best node, so all other keys keep landing on the same node.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class RendezvousHashing {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private RendezvousHashing() {
+	}
+
+	/**
+	 * Select the node a key belongs to
+	 *
+	 * @param key   the key to select the node for
+	 * @param nodes the nodes to select from
+	 * @return the node with the highest score for the key, or {@code null} if there are no nodes
+	 */
+	public static @Nullable String select(@NotNull String key, @NotNull Collection<String> nodes) {
+		final long keyHash = hash(key);
+
+		String selectedNode = null;
+		long selectedScore = 0;
+		for (String node : nodes) {
+			final long score = score(keyHash, node);
+			// Break ties on the node id, so every sender selects the same node
+			if (selectedNode == null || Long.compareUnsigned(score, selectedScore) > 0
+					|| (score == selectedScore && node.compareTo(selectedNode) < 0)) {
+				selectedNode = node;
+				selectedScore = score;
+			}
+		}
+		return selectedNode;
+	}
+
+	private static long score(long keyHash, String node) {
+		return mix(keyHash ^ hash(node));
+	}
+
+	/**
+	 * Hash a string with 64-bit FNV-1a, unlike {@link String#hashCode()} it spreads well over 64 bits
+	 * and is the same on every JVM
+	 */
+	private static long hash(String value) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, so every bit of the key and node hash affects the score
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb93fe53e87a3L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
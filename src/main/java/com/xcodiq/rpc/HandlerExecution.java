@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.rpc;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the way record handlers are executed once an incoming packet has been read from the event loop.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public enum HandlerExecution {
+
+	/**
+	 * Execute the record handlers directly on the lettuce event loop thread
+	 *
+	 * @apiNote Only use this for handlers that never block, one slow handler stalls the whole connection
+	 */
+	DIRECT {
+		@Override
+		public @NotNull Executor createExecutor(int threads) {
+			return Runnable::run;
+		}
+	},
+
+	/**
+	 * Execute the record handlers on a fixed (bounded) pool of platform threads
+	 */
+	BOUNDED {
+		@Override
+		public @NotNull Executor createExecutor(int threads) {
+			return Executors.newFixedThreadPool(threads, HANDLER_THREAD_FACTORY);
+		}
+	},
+
+	/**
+	 * Execute the record handlers on a work-stealing pool, sized by the amount of threads
+	 */
+	WORK_STEALING {
+		@Override
+		public @NotNull Executor createExecutor(int threads) {
+			return Executors.newWorkStealingPool(threads);
+		}
+	},
+
+	/**
+	 * Execute every record handler on its own virtual thread
+	 *
+	 * @apiNote Falls back to {@link HandlerExecution#WORK_STEALING} when the runtime does not support virtual threads (Java 21+)
+	 */
+	VIRTUAL {
+		@Override
+		public @NotNull Executor createExecutor(int threads) {
+			if (VIRTUAL_EXECUTOR_FACTORY == null) return WORK_STEALING.createExecutor(threads);
+
+			try {
+				return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke();
+			} catch (Throwable throwable) {
+				LOG.warn("Unable to create a virtual thread executor, falling back to work-stealing", throwable);
+				return WORK_STEALING.createExecutor(threads);
+			}
+		}
+	};
+
+	private static final Logger LOG = LoggerFactory.getLogger(HandlerExecution.class);
+
+	private static final String THREAD_NAME = "RPC-HANDLER-%d";
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+	private static final ThreadFactory HANDLER_THREAD_FACTORY = runnable -> {
+		final Thread thread = new Thread(runnable, String.format(THREAD_NAME, THREAD_COUNTER.getAndIncrement()));
+		thread.setDaemon(true);
+		return thread;
+	};
+
+	// Looked up reflectively, so the library keeps targeting Java 17
+	private static final MethodHandle VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+	private static MethodHandle findVirtualExecutorFactory() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class,
+					"newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException ignored) {
+			return null;
+		}
+	}
+
+	/**
+	 * Create a new executor for this type of handler execution
+	 *
+	 * @param threads the amount of threads to use, ignored by executions that are not bounded
+	 * @return the newly created executor
+	 */
+	public abstract @NotNull Executor createExecutor(int threads);
+}
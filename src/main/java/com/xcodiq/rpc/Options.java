@@ -24,10 +24,14 @@
 
 package com.xcodiq.rpc;
 
+import com.xcodiq.record.dispatch.PriorityScheduling;
+import com.xcodiq.record.routing.LoadBalancing;
 import lombok.Getter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author xCodiq - Elmar (Cody) Lynn
  * @wesbite https://xcodiq.com
@@ -38,6 +42,40 @@ public final class Options {
 
 	private final String redisURI, topic, recordPrefix;
 
+	private HandlerExecution handlerExecution = HandlerExecution.WORK_STEALING; // how record handlers are executed
+	private int handlerThreads = Runtime.getRuntime().availableProcessors(); // the parallelism of the handler executor
+
+	private boolean adaptiveLimiting = false; // whether in-flight records are limited by an adaptive limiter
+	private int limiterQueueSize = 0; // the amount of records queued when over the limit, 0 to fail fast
+
+	private long maxQueueTime = 0; // the maximum time a received packet may wait for a handler, 0 for no maximum
+	private TimeUnit maxQueueTimeUnit = TimeUnit.MILLISECONDS; // the time unit of the maximum queue time
+	private boolean adaptiveShedding = false; // whether received packets are shed when a standing queue builds up
+
+	private double retryBudgetRatio = 0.1; // the fraction of extra records that may be sent as hedges, 0 to never hedge
+	private double retryBudgetMinPerSecond = 1; // the retries per second allowed regardless of traffic
+	private int retryBudgetMaxTokens = 10; // the maximum amount of retries saved up, the largest burst of retries
+
+	private PriorityScheduling priorityScheduling = PriorityScheduling.WEIGHTED; // how record priorities are scheduled
+
+	private boolean globalInstance = false; // whether the rpc instance is registered as the static instance
+
+	private boolean membershipTracking = false; // whether the instance joins the membership of its record prefix
+	private long heartbeatInterval = 1; // the interval between two heartbeats of the membership
+	private TimeUnit heartbeatIntervalUnit = TimeUnit.SECONDS; // the time unit of the heartbeat interval
+	private LoadBalancing loadBalancing = LoadBalancing.BROADCAST; // how records without a routing key are sent
+
+	private int claimCheckThreshold = 512 * 1024; // the size in bytes above which packets are offloaded to a key, 0 to never offload
+	private int chunkSize = 0; // the size in bytes above which packets are split into chunks of this size, 0 to never split
+	private long maxReassemblyBytes = 64 * 1024 * 1024; // the maximum size of all chunked packets being reassembled
+
+	private boolean packetPooling = false; // whether received recyclable packets and envelopes are reused
+	private boolean lazyPayloads = false; // whether the payloads of received generic packets are decoded on first use
+
+	private boolean sharedMemory = false; // whether instances on the same host exchange messages through shared memory
+	private String sharedMemoryDirectory = "/dev/shm"; // the directory of the shared memory rings
+	private int sharedMemoryRingSize = 8 * 1024 * 1024; // the size of the shared memory ring of the instance
+
 	public Options(String redisURI, String topic, String recordPrefix) {
 		this.redisURI = redisURI;
 		this.topic = topic;
@@ -48,4 +86,289 @@ public final class Options {
 	public static @NotNull Options of(String redisURI, String topic, String recordPrefix) {
 		return new Options(redisURI, topic, recordPrefix);
 	}
+
+	/**
+	 * Set the way record handlers are executed
+	 *
+	 * @param handlerExecution the handler execution to use
+	 * @return the options instance, for chaining
+	 */
+	public Options setHandlerExecution(@NotNull HandlerExecution handlerExecution) {
+		this.handlerExecution = handlerExecution;
+		return this;
+	}
+
+	/**
+	 * Set the amount of threads used to execute record handlers
+	 *
+	 * @param handlerThreads the amount of handler threads, must be positive
+	 * @return the options instance, for chaining
+	 */
+	public Options setHandlerThreads(int handlerThreads) {
+		if (handlerThreads < 1) throw new IllegalArgumentException("The amount of handler threads must be positive");
+		this.handlerThreads = handlerThreads;
+		return this;
+	}
+
+	/**
+	 * Set whether the in-flight records are limited per record type and target, using
+	 * an adaptive limiter which adjusts its limit from the measured reply latency
+	 *
+	 * @param adaptiveLimiting {@code true} to enable adaptive limiting, {@code false} otherwise
+	 * @return the options instance, for chaining
+	 */
+	public Options setAdaptiveLimiting(boolean adaptiveLimiting) {
+		this.adaptiveLimiting = adaptiveLimiting;
+		return this;
+	}
+
+	/**
+	 * Set the amount of records queued when the adaptive limit has been reached
+	 *
+	 * @param limiterQueueSize the amount of records to queue, {@code 0} to fail fast instead
+	 * @return the options instance, for chaining
+	 */
+	public Options setLimiterQueueSize(int limiterQueueSize) {
+		if (limiterQueueSize < 0) throw new IllegalArgumentException("The limiter queue size can not be negative");
+		this.limiterQueueSize = limiterQueueSize;
+		return this;
+	}
+
+	/**
+	 * Set the maximum time a received packet may wait for a handler, packets waiting longer are
+	 * shed, packets routed to this instance are replied to with {@link com.xcodiq.packet.PacketStatus#SERVICE_UNAVAILABLE}
+	 * and broadcast packets are dropped silently
+	 *
+	 * @param maxQueueTime the maximum queue time, {@code 0} for no maximum
+	 * @param timeUnit     the time unit of the maximum queue time
+	 * @return the options instance, for chaining
+	 */
+	public Options setMaxQueueTime(long maxQueueTime, @NotNull TimeUnit timeUnit) {
+		if (maxQueueTime < 0) throw new IllegalArgumentException("The maximum queue time can not be negative");
+		this.maxQueueTime = maxQueueTime;
+		this.maxQueueTimeUnit = timeUnit;
+		return this;
+	}
+
+	/**
+	 * Set whether received packets are shed once a standing queue builds up in front of the handlers
+	 *
+	 * @param adaptiveShedding {@code true} to enable adaptive shedding, {@code false} otherwise
+	 * @return the options instance, for chaining
+	 */
+	public Options setAdaptiveShedding(boolean adaptiveShedding) {
+		this.adaptiveShedding = adaptiveShedding;
+		return this;
+	}
+
+	/**
+	 * Set the fraction of extra records that may be sent as retries, e.g. for hedged records
+	 * <p>
+	 * The retry budget is kept per rpc instance, so every instance may retry this fraction of its own records
+	 *
+	 * @param retryBudgetRatio the retry budget ratio, {@code 0.1} allows 10% extra records and {@code 0} disables retries
+	 * @return the options instance, for chaining
+	 * @see com.xcodiq.record.Record#setHedged(boolean)
+	 */
+	public Options setRetryBudgetRatio(double retryBudgetRatio) {
+		if (retryBudgetRatio < 0) throw new IllegalArgumentException("The retry budget ratio can not be negative");
+		this.retryBudgetRatio = retryBudgetRatio;
+		return this;
+	}
+
+	/**
+	 * Set the retries per second allowed regardless of traffic, so an instance sending few records can still retry
+	 * <p>
+	 * This is allowed by every rpc instance on its own, keep it low when there are many instances
+	 *
+	 * @param retryBudgetMinPerSecond the retries per second, {@code 0} to only allow retries earned by traffic
+	 * @return the options instance, for chaining
+	 */
+	public Options setRetryBudgetMinPerSecond(double retryBudgetMinPerSecond) {
+		if (retryBudgetMinPerSecond < 0) throw new IllegalArgumentException("The retry budget minimum can not be negative");
+		this.retryBudgetMinPerSecond = retryBudgetMinPerSecond;
+		return this;
+	}
+
+	/**
+	 * Set the maximum amount of retries an rpc instance saves up, the largest burst of retries it sends at once
+	 *
+	 * @param retryBudgetMaxTokens the maximum amount of saved up retries
+	 * @return the options instance, for chaining
+	 */
+	public Options setRetryBudgetMaxTokens(int retryBudgetMaxTokens) {
+		if (retryBudgetMaxTokens < 1) throw new IllegalArgumentException("The retry budget maximum must be at least 1");
+		this.retryBudgetMaxTokens = retryBudgetMaxTokens;
+		return this;
+	}
+
+	/**
+	 * Set the way received records of different priorities are scheduled on the handler executor
+	 *
+	 * @param priorityScheduling the priority scheduling to use
+	 * @return the options instance, for chaining
+	 */
+	public Options setPriorityScheduling(@NotNull PriorityScheduling priorityScheduling) {
+		this.priorityScheduling = priorityScheduling;
+		return this;
+	}
+
+	/**
+	 * Set whether the rpc instance is registered as the static instance, used by {@link RPC#getInstance()} and
+	 * {@link com.xcodiq.record.Record#send()}. Only one rpc instance per JVM should be registered as the static instance
+	 *
+	 * @param globalInstance whether the rpc instance is registered as the static instance
+	 * @return the options instance, for chaining
+	 */
+	public Options setGlobalInstance(boolean globalInstance) {
+		this.globalInstance = globalInstance;
+		return this;
+	}
+
+	/**
+	 * Set whether the instance joins the membership of its record prefix, members publish heartbeats to find out
+	 * which nodes are alive. Records with a routing key are routed by the membership, and records routed to a
+	 * member that is declared dead fail right away with {@link com.xcodiq.packet.PacketStatus#SERVICE_UNAVAILABLE}
+	 *
+	 * @param membershipTracking whether the instance joins the membership
+	 * @return the options instance, for chaining
+	 * @see com.xcodiq.membership.Membership
+	 */
+	public Options setMembershipTracking(boolean membershipTracking) {
+		this.membershipTracking = membershipTracking;
+		return this;
+	}
+
+	/**
+	 * Set the interval between two heartbeats of the membership, a crashed member is declared dead
+	 * after roughly three and a half intervals
+	 *
+	 * @param heartbeatInterval the heartbeat interval
+	 * @param timeUnit          the time unit of the heartbeat interval
+	 * @return the options instance, for chaining
+	 */
+	public Options setHeartbeatInterval(long heartbeatInterval, @NotNull TimeUnit timeUnit) {
+		if (heartbeatInterval <= 0) throw new IllegalArgumentException("The heartbeat interval must be positive");
+		this.heartbeatInterval = heartbeatInterval;
+		this.heartbeatIntervalUnit = timeUnit;
+		return this;
+	}
+
+	/**
+	 * Set the way records without a routing key are sent, by default they are broadcast to all instances.
+	 * Balancing records over the nodes by their advertised load requires a membership view
+	 *
+	 * @param loadBalancing the load balancing to use
+	 * @return the options instance, for chaining
+	 * @see Options#setMembershipTracking(boolean)
+	 */
+	public Options setLoadBalancing(@NotNull LoadBalancing loadBalancing) {
+		this.loadBalancing = loadBalancing;
+		return this;
+	}
+
+	/**
+	 * Set the size above which packets are offloaded to a redis key, only a claim check of the packet is published
+	 * and the receivers fetch the packet once they are going to handle it. This keeps large packets out of the
+	 * output buffer of every subscriber, see the {@code client-output-buffer-limit pubsub} setting of redis
+	 *
+	 * @param claimCheckThreshold the size in bytes, {@code 0} to never offload packets
+	 * @return the options instance, for chaining
+	 */
+	public Options setClaimCheckThreshold(int claimCheckThreshold) {
+		if (claimCheckThreshold < 0) throw new IllegalArgumentException("The claim check threshold can not be negative");
+		this.claimCheckThreshold = claimCheckThreshold;
+		return this;
+	}
+
+	/**
+	 * Set the size above which packets are split into chunks of this size, the receivers reassemble them.
+	 * Chunking replaces the claim check of large packets, see {@link Options#setClaimCheckThreshold(int)}
+	 *
+	 * @param chunkSize the chunk size in bytes, {@code 0} to never split packets
+	 * @return the options instance, for chaining
+	 */
+	public Options setChunkSize(int chunkSize) {
+		if (chunkSize < 0) throw new IllegalArgumentException("The chunk size can not be negative");
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Set the maximum size of all chunked packets being reassembled at once, packets beyond it are dropped
+	 *
+	 * @param maxReassemblyBytes the maximum size in bytes
+	 * @return the options instance, for chaining
+	 */
+	public Options setMaxReassemblyBytes(long maxReassemblyBytes) {
+		if (maxReassemblyBytes <= 0) throw new IllegalArgumentException("The maximum reassembly size must be positive");
+		this.maxReassemblyBytes = maxReassemblyBytes;
+		return this;
+	}
+
+	/**
+	 * Set whether received packets and their envelopes are reused instead of allocated for every message.
+	 * Only packets implementing {@link com.xcodiq.packet.Recyclable} are reused, they are returned to their pool
+	 * once their record handler or reply consumer finished and must not be referenced after that
+	 *
+	 * @param packetPooling whether packet pooling is enabled
+	 * @return the options instance, for chaining
+	 */
+	public Options setPacketPooling(boolean packetPooling) {
+		this.packetPooling = packetPooling;
+		return this;
+	}
+
+	/**
+	 * Set whether the payload of a received {@link com.xcodiq.packet.GenericPacket} is kept encoded until it is first
+	 * used, handlers that only route, forward or count packets then never decode it. Subclasses must access the payload
+	 * using {@link com.xcodiq.packet.GenericPacket#getPayload()}, the field is {@code null} while the payload is encoded
+	 *
+	 * @param lazyPayloads whether payloads are decoded on first use
+	 * @return the options instance, for chaining
+	 */
+	public Options setLazyPayloads(boolean lazyPayloads) {
+		this.lazyPayloads = lazyPayloads;
+		return this;
+	}
+
+	/**
+	 * Set whether instances on the same host exchange routed records and replies through memory-mapped ring buffers
+	 * instead of redis. Instances find each other automatically, messages for instances on other hosts and broadcast
+	 * records are still published on redis. Records are only routed with membership tracking enabled
+	 *
+	 * @param sharedMemory whether the shared memory transport is enabled
+	 * @return the options instance, for chaining
+	 * @see Options#setMembershipTracking(boolean)
+	 */
+	public Options setSharedMemory(boolean sharedMemory) {
+		this.sharedMemory = sharedMemory;
+		return this;
+	}
+
+	/**
+	 * Set the directory of the shared memory rings, it should be a memory-backed file system
+	 *
+	 * @param sharedMemoryDirectory the directory, {@code /dev/shm} by default
+	 * @return the options instance, for chaining
+	 */
+	public Options setSharedMemoryDirectory(@NotNull String sharedMemoryDirectory) {
+		this.sharedMemoryDirectory = sharedMemoryDirectory;
+		return this;
+	}
+
+	/**
+	 * Set the size of the shared memory ring of the instance, messages larger than half of it, and messages that do not
+	 * fit until the slowest reader on this host catches up, are published on redis
+	 *
+	 * @param sharedMemoryRingSize the size in bytes, a power of two
+	 * @return the options instance, for chaining
+	 */
+	public Options setSharedMemoryRingSize(int sharedMemoryRingSize) {
+		if (sharedMemoryRingSize < 4096 || Integer.bitCount(sharedMemoryRingSize) != 1) {
+			throw new IllegalArgumentException("The shared memory ring size must be a power of two of at least 4096");
+		}
+		this.sharedMemoryRingSize = sharedMemoryRingSize;
+		return this;
+	}
 }
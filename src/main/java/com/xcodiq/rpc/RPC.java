@@ -24,12 +24,9 @@
 
 package com.xcodiq.rpc;
 
-import com.fatboyindustrial.gsonjavatime.Converters;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.xcodiq.lettuce.LettuceManager;
-import com.xcodiq.packet.internal.IncomingPacket;
-import com.xcodiq.packet.internal.IncomingPacketAdapter;
+import com.xcodiq.packet.serialization.PacketCodec;
 import com.xcodiq.record.RecordManager;
 import lombok.Getter;
 import lombok.Setter;
@@ -54,46 +51,64 @@ public final class RPC<T> {
 
 	public static final Logger LOG = LoggerFactory.getLogger(RPC.class);
 	private static final String THREAD_NAME = "RPC-THREAD-%d";
+	private static final String SCHEDULER_NAME = "RPC-SCHEDULER-%d";
 	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
-	private static final GsonBuilder GSON_BUILDER = new GsonBuilder()
-			.registerTypeHierarchyAdapter(IncomingPacket.class, new IncomingPacketAdapter())
-			.excludeFieldsWithModifiers(128)
-			.serializeNulls()
-			.disableHtmlEscaping()
-			.enableComplexMapKeySerialization()
-			.setPrettyPrinting();
-	private static RPC<?> INSTANCE;
-	private static Gson GSON = Converters.registerAll(GSON_BUILDER).create();
+	private static final AtomicInteger SCHEDULER_COUNTER = new AtomicInteger(0);
+	private static volatile RPC<?> INSTANCE;
 
 	private final T source;
 	private final Class<T> sourceClass;
 
 	private final Options options;
 
+	/* owned by this rpc instance */
+	private final PacketCodec codec;
+	private final ScheduledExecutorService scheduler; // runs the timers of this instance only, callbacks are run on the handler executor
+
 	/* managers */
 	private final LettuceManager lettuceManager;
 	private final RecordManager recordManager;
 
 	@Contract(pure = true)
 	public RPC(@NotNull T source, @NotNull Options options) {
-		INSTANCE = this;
 		this.options = options;
 
 		// Initialize the source and the source class
 		this.source = source;
 		this.sourceClass = (Class<T>) source.getClass();
 
+		// Initialize the codec and the scheduler of this rpc instance, the global instance shares the default codec
+		this.codec = options.isGlobalInstance() ? PacketCodec.getDefault() : new PacketCodec();
+		if (options.isPacketPooling()) this.codec.setPooling(true);
+		if (options.isLazyPayloads()) this.codec.setLazyPayloads(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			final Thread thread = new Thread(r, String.format(SCHEDULER_NAME, SCHEDULER_COUNTER.getAndIncrement()));
+			thread.setDaemon(true);
+			return thread;
+		});
+
 		// Initialize a new lettuce manager for this rpc instance
 		this.lettuceManager = new LettuceManager(options.getRedisURI());
 
 		// Initialize a new record manager for this rpc instance
 		this.recordManager = new RecordManager(this);
 
+		// Register this rpc instance as the static instance, if opted in
+		if (options.isGlobalInstance()) INSTANCE = this;
+
 		LOG.info("Successfully created a new RPC instance for '{}'", sourceClass.getSimpleName());
 	}
 
+	/**
+	 * Get the static rpc instance
+	 *
+	 * @return the static rpc instance
+	 * @throws IllegalStateException if no rpc instance has been registered as the static instance
+	 * @apiNote Only available when {@link Options#setGlobalInstance(boolean)} is enabled, prefer passing the rpc instance around
+	 */
 	public static RPC<?> getInstance() {
-		if (INSTANCE == null) throw new IllegalStateException("RPC instance has not been initialized yet!");
+		if (INSTANCE == null) throw new IllegalStateException("RPC instance has not been initialized yet, " +
+				"or has not been registered as the global instance!");
 		return INSTANCE;
 	}
 
@@ -102,16 +117,42 @@ public final class RPC<T> {
 		return Executors.newScheduledThreadPool(0, r -> new Thread(r, String.format(THREAD_NAME, THREAD_COUNTER.getAndIncrement())));
 	}
 
+	/**
+	 * Get the gson instance of the default codec
+	 *
+	 * @return the gson instance of the default codec
+	 * @apiNote Use {@link RPC#getCodec()} for the codec of a specific rpc instance
+	 */
 	public static Gson getGson() {
-		return GSON;
+		return PacketCodec.getDefault().getGson();
 	}
 
 	public static void rebuildGson() {
-		GSON = GSON_BUILDER.create();
+		PacketCodec.getDefault().rebuild();
 	}
 
+	/**
+	 * Register a type adapter on the default codec
+	 *
+	 * @param type        the type to register the adapter for
+	 * @param typeAdapter the type adapter to register
+	 * @apiNote Use {@link PacketCodec#registerTypeAdapter(Type, Object)} on {@link RPC#getCodec()} for a specific rpc instance
+	 */
 	public static void registerTypeAdapter(Type type, Object typeAdapter) {
-		GSON_BUILDER.registerTypeAdapter(type, typeAdapter);
-		rebuildGson();
+		PacketCodec.getDefault().registerTypeAdapter(type, typeAdapter);
+	}
+
+	/**
+	 * Shut down this rpc instance, it stops receiving records and closes its redis connections
+	 */
+	public void shutdown() {
+		this.recordManager.shutdown();
+		this.scheduler.shutdownNow();
+		this.lettuceManager.shutdown();
+
+		// Unregister this rpc instance as the static instance
+		if (INSTANCE == this) INSTANCE = null;
+
+		LOG.info("Successfully shut down the RPC instance for '{}'", sourceClass.getSimpleName());
 	}
 }
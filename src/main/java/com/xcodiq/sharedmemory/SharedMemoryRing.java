@@ -0,0 +1,454 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.sharedmemory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * A ring buffer in a memory-mapped file, written by a single process and read by any number of processes on the same
+ * host. Every reader keeps its own position, so every message is seen by all readers, and a message carries the node
+ * id it is meant for so the other readers skip it without copying it.
+ * <p>
+ * Every reader publishes how far it has read the rings of the other processes in the reader slots of its own ring, and
+ * a writer refuses a record that would overwrite bytes the slowest reader has not read yet, so the message can be sent
+ * another way instead. A reader that still falls a whole ring behind (e.g. one that has not claimed a slot) loses the
+ * messages it missed: before writing a record the writer claims the bytes it is going to overwrite, a reader checks the
+ * claim after copying a record out, and a record that may have been overwritten while it was copied is dropped.
+ * <p>
+ * The file is only accessible to the user that created it. The writer holds an exclusive lock on a lock file next to
+ * the ring for as long as it lives, so a ring is only deleted by another process once the lock shows its writer is gone.
+ * The lock is not taken on the ring itself, as closing any channel of a file releases all locks a process holds on it,
+ * and other instances in the same process open the ring to read it.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+final class SharedMemoryRing {
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	private static final int MAGIC = 0x52504352; // "RPCR", written last when the ring is created
+	private static final int MAGIC_OFFSET = 0;
+	private static final int CAPACITY_OFFSET = 4;
+	private static final int HEARTBEAT_OFFSET = 8; // the epoch millis the writer was last alive at
+	private static final int WRITE_POSITION_OFFSET = 64; // on its own cache line, the only fields readers spin on
+	private static final int CLAIM_POSITION_OFFSET = 72; // the end of the bytes the writer is writing
+	private static final int READER_SLOTS_OFFSET = 128; // the positions this process has read the rings of other processes up to
+	private static final int READER_SLOTS = 64; // the maximum amount of other processes whose rings are read
+	private static final int READER_SLOT_SIZE = 16; // the key of the node id of the writer, and the position read up to
+	private static final int DATA_OFFSET = READER_SLOTS_OFFSET + READER_SLOTS * READER_SLOT_SIZE;
+
+	private static final int RECORD_HEADER_SIZE = 16; // the record length, and the lengths of the node id, channel and message
+	private static final int PADDING = -1; // the node id length of the record filling the end of the ring before it wraps
+
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+	private static final Set<Path> LOCKED = ConcurrentHashMap.newKeySet(); // the rings written by this process, their lock files are never opened twice
+
+	private final Path path;
+	private final ByteBuffer buffer;
+	private final int capacity, mask;
+	private final @Nullable FileChannel lockChannel; // holds the lock of the writer, only open in the process that created the ring
+
+	private long writePosition; // only used by the writer
+
+	private SharedMemoryRing(Path path, MappedByteBuffer buffer, int capacity, @Nullable FileChannel lockChannel) {
+		this.path = path;
+		this.buffer = buffer.order(ByteOrder.nativeOrder());
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.lockChannel = lockChannel;
+	}
+
+	/**
+	 * Create the ring of this process, replacing an existing file that is not locked by another process
+	 *
+	 * @param path     the file to map
+	 * @param capacity the size of the data of the ring in bytes, a power of two
+	 * @return the ring, open for writing until it is closed
+	 * @throws IOException if the file can not be created, locked or mapped
+	 */
+	static @NotNull SharedMemoryRing create(@NotNull Path path, int capacity) throws IOException {
+		if (!LOCKED.add(lockKeyOf(path))) throw new IOException("The shared memory ring is in use by this process: " + path);
+
+		FileChannel lockChannel = null;
+		try {
+			lockChannel = openOwnerOnly(lockPathOf(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			if (lockChannel.tryLock() == null) throw new IOException("The shared memory ring is in use by another process: " + path);
+
+			try (FileChannel channel = openOwnerOnly(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				channel.truncate(0);
+				final SharedMemoryRing ring = new SharedMemoryRing(path, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+						DATA_OFFSET + (long) capacity), capacity, lockChannel);
+				ring.buffer.putInt(CAPACITY_OFFSET, capacity);
+				ring.heartbeat();
+				VarHandle.releaseFence();
+				ring.buffer.putInt(MAGIC_OFFSET, MAGIC);
+				return ring;
+			}
+		} catch (IOException | RuntimeException exception) {
+			if (lockChannel != null) lockChannel.close();
+			LOCKED.remove(lockKeyOf(path));
+			throw exception;
+		}
+	}
+
+	/**
+	 * Open a file only accessible to the current user, restricting an existing file as well
+	 */
+	private static FileChannel openOwnerOnly(Path path, StandardOpenOption... options) throws IOException {
+		if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) return FileChannel.open(path, options);
+
+		final FileChannel channel = FileChannel.open(path, Set.of(options), PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+		try {
+			Files.setPosixFilePermissions(path, OWNER_ONLY);
+			return channel;
+		} catch (IOException | RuntimeException exception) {
+			channel.close();
+			throw exception;
+		}
+	}
+
+	private static Path lockPathOf(Path path) {
+		return path.resolveSibling(path.getFileName() + ".lock");
+	}
+
+	private static Path lockKeyOf(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Open the ring of another process for reading
+	 *
+	 * @param path the file to map
+	 * @return the ring, or {@code null} if the file is not a complete ring (yet)
+	 * @throws IOException if the file can not be mapped
+	 */
+	static @Nullable SharedMemoryRing open(@NotNull Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size < DATA_OFFSET) return null;
+
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			buffer.order(ByteOrder.nativeOrder());
+			if (buffer.getInt(MAGIC_OFFSET) != MAGIC) return null;
+
+			final int capacity = buffer.getInt(CAPACITY_OFFSET);
+			if (Integer.bitCount(capacity) != 1 || DATA_OFFSET + (long) capacity != size) return null;
+			return new SharedMemoryRing(path, buffer, capacity, null);
+		}
+	}
+
+	/**
+	 * Delete the ring of another process, if that process is verifiably gone. The writer holds the lock on the lock file
+	 * of its ring until it closes its ring or exits, so the lock can only be taken once the writer is gone.
+	 *
+	 * @param path the file of the ring
+	 * @return {@code true} if the ring has been deleted, {@code false} if its writer still holds it
+	 * @throws IOException if the file can not be locked or deleted
+	 */
+	static boolean deleteIfAbandoned(@NotNull Path path) throws IOException {
+		if (LOCKED.contains(lockKeyOf(path))) return false; // written by this process, opening its lock file would release the lock
+
+		final Path lockPath = lockPathOf(path);
+		try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.WRITE)) {
+			final FileLock lock = channel.tryLock();
+			if (lock == null) return false;
+
+			// Delete the files while holding the lock, so a new writer can not have taken them over in between
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(lockPath);
+			return true;
+		} catch (NoSuchFileException exception) {
+			// The writer deletes its lock file last, without one the ring is left over
+			Files.deleteIfExists(path);
+			return true;
+		} catch (OverlappingFileLockException exception) {
+			return false; // being deleted by another instance in this process
+		}
+	}
+
+	/**
+	 * Read the heartbeat of a ring from its file, without mapping it
+	 *
+	 * @param path the file of the ring
+	 * @return the epoch millis of the last heartbeat, or {@code -1} if the file is not a complete ring (yet)
+	 * @throws IOException if the file can not be read
+	 */
+	static long readHeartbeat(@NotNull Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEARTBEAT_OFFSET + Long.BYTES).order(ByteOrder.nativeOrder());
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) return -1;
+			}
+			if (header.getInt(MAGIC_OFFSET) != MAGIC) return -1;
+			return header.getLong(HEARTBEAT_OFFSET);
+		}
+	}
+
+	/**
+	 * Write a message to the ring, only called by the process that created it
+	 *
+	 * @param nodeId       the node id of the reader the message is meant for
+	 * @param channel      the channel of the message
+	 * @param message      the message
+	 * @param readPosition the position the slowest reader has read the ring up to, the message is not written over it
+	 * @return {@code true} if the message has been written, {@code false} if it is too large for the ring
+	 * or there is no room for it until the slowest reader catches up
+	 */
+	synchronized boolean write(byte @NotNull [] nodeId, byte @NotNull [] channel, byte @NotNull [] message, long readPosition) {
+		final long length = align(RECORD_HEADER_SIZE + (long) nodeId.length + channel.length + message.length);
+		if (length > this.capacity / 2) return false;
+
+		// Make sure no reader has to skip a record it has not read yet
+		int index = (int) (this.writePosition & this.mask);
+		final long padding = index + length > this.capacity ? this.capacity - index : 0;
+		if (this.writePosition + padding + length - readPosition > this.capacity) return false;
+
+		// Claim the bytes of the record before overwriting them, including the end of the ring if it has to wrap
+		LONGS.setRelease(this.buffer, CLAIM_POSITION_OFFSET, this.writePosition + padding + length);
+		VarHandle.storeStoreFence();
+
+		// Fill the end of the ring if the record does not fit before it wraps
+		if (padding > 0) {
+			this.buffer.putInt(DATA_OFFSET + index, (int) padding);
+			this.buffer.putInt(DATA_OFFSET + index + 4, PADDING);
+			this.writePosition += padding;
+			index = 0;
+		}
+
+		int offset = DATA_OFFSET + index;
+		this.buffer.putInt(offset, (int) length);
+		this.buffer.putInt(offset + 4, nodeId.length);
+		this.buffer.putInt(offset + 8, channel.length);
+		this.buffer.putInt(offset + 12, message.length);
+		offset += RECORD_HEADER_SIZE;
+		this.buffer.put(offset, nodeId);
+		this.buffer.put(offset + nodeId.length, channel);
+		this.buffer.put(offset + nodeId.length + channel.length, message);
+
+		// Publish the record, readers only read up to the write position
+		this.writePosition += length;
+		LONGS.setRelease(this.buffer, WRITE_POSITION_OFFSET, this.writePosition);
+		return true;
+	}
+
+	/**
+	 * Read the messages meant for a node, from a position up to the current write position
+	 *
+	 * @param position the position to read from, as returned by the previous read
+	 * @param nodeId   the node id of the reader
+	 * @param consumer called with the channel and the message of every message meant for the reader
+	 * @return the position to continue reading from
+	 */
+	long read(long position, byte @NotNull [] nodeId, @NotNull BiConsumer<String, byte[]> consumer) {
+		final long writePosition = this.getWritePosition();
+		if (writePosition - position > this.capacity) position = writePosition; // lapped, the missed messages are gone
+
+		while (position < writePosition) {
+			final int offset = DATA_OFFSET + (int) (position & this.mask);
+			final int length = this.buffer.getInt(offset);
+			final int nodeIdLength = this.buffer.getInt(offset + 4);
+
+			// A record that has been overwritten, or makes no sense, is skipped along with everything before the writer
+			if (this.isOverwritten(position)) return this.getWritePosition();
+			if (length < 8 || (length & 7) != 0 || offset + length > DATA_OFFSET + this.capacity) return this.getWritePosition();
+			if (nodeIdLength == PADDING) {
+				position += length;
+				continue;
+			}
+
+			final int channelLength = this.buffer.getInt(offset + 8);
+			final int messageLength = this.buffer.getInt(offset + 12);
+			if (nodeIdLength < 0 || channelLength < 0 || messageLength < 0
+					|| RECORD_HEADER_SIZE + (long) nodeIdLength + channelLength + messageLength > length) return this.getWritePosition();
+
+			if (this.isMeantFor(offset + RECORD_HEADER_SIZE, nodeIdLength, nodeId)) {
+				final byte[] channel = new byte[channelLength];
+				final byte[] message = new byte[messageLength];
+				this.buffer.get(offset + RECORD_HEADER_SIZE + nodeIdLength, channel);
+				this.buffer.get(offset + RECORD_HEADER_SIZE + nodeIdLength + channelLength, message);
+
+				// Drop the message if the writer may have overwritten it while it was copied
+				if (this.isOverwritten(position)) return this.getWritePosition();
+
+				consumer.accept(new String(channel, StandardCharsets.UTF_8), message);
+			}
+			position += length;
+		}
+		return position;
+	}
+
+	/**
+	 * Check if the writer has claimed, and may have overwritten, the bytes of a record read so far
+	 *
+	 * @param position the position of the record
+	 * @return {@code true} if the record can not be trusted, {@code false} otherwise
+	 */
+	private boolean isOverwritten(long position) {
+		VarHandle.loadLoadFence();
+		return (long) LONGS.getAcquire(this.buffer, CLAIM_POSITION_OFFSET) - position > this.capacity;
+	}
+
+	long getWritePosition() {
+		return (long) LONGS.getAcquire(this.buffer, WRITE_POSITION_OFFSET);
+	}
+
+	/**
+	 * Claim a reader slot of this ring, to publish the position this process has read the ring of a writer up to
+	 *
+	 * @param writerKey the key of the node id of the writer
+	 * @param position  the position the ring of the writer is read from
+	 * @return the index of the slot, or {@code -1} if all slots have been claimed
+	 */
+	int claimReaderSlot(long writerKey, long position) {
+		for (int slot = 0; slot < READER_SLOTS; slot++) {
+			final int offset = READER_SLOTS_OFFSET + slot * READER_SLOT_SIZE;
+			if ((long) LONGS.getAcquire(this.buffer, offset) != 0) continue;
+
+			LONGS.setRelease(this.buffer, offset + 8, position);
+			LONGS.setRelease(this.buffer, offset, writerKey);
+			return slot;
+		}
+		return -1;
+	}
+
+	/**
+	 * Publish the position this process has read the ring of a writer up to
+	 *
+	 * @param slot     the index of the reader slot, as claimed by {@link #claimReaderSlot(long, long)}
+	 * @param position the position read up to
+	 */
+	void setReadPosition(int slot, long position) {
+		LONGS.setRelease(this.buffer, READER_SLOTS_OFFSET + slot * READER_SLOT_SIZE + 8, position);
+	}
+
+	/**
+	 * Release a reader slot, once the ring of its writer is no longer read
+	 *
+	 * @param slot the index of the reader slot
+	 */
+	void releaseReaderSlot(int slot) {
+		LONGS.setRelease(this.buffer, READER_SLOTS_OFFSET + slot * READER_SLOT_SIZE, 0L);
+	}
+
+	/**
+	 * Get the position the process of this ring has read the ring of a writer up to
+	 *
+	 * @param writerKey the key of the node id of the writer
+	 * @return the position, or {@code -1} if the process has not claimed a reader slot for the writer
+	 */
+	long getReadPosition(long writerKey) {
+		for (int slot = 0; slot < READER_SLOTS; slot++) {
+			final int offset = READER_SLOTS_OFFSET + slot * READER_SLOT_SIZE;
+			if ((long) LONGS.getAcquire(this.buffer, offset) != writerKey) continue;
+
+			// The slot may have been released and claimed by another writer while its position was read
+			final long position = (long) LONGS.getAcquire(this.buffer, offset + 8);
+			if ((long) LONGS.getAcquire(this.buffer, offset) == writerKey) return position;
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the key identifying a writer in the reader slots
+	 *
+	 * @param nodeId the node id of the writer
+	 * @return the key of the node id, never {@code 0} as that marks a free slot
+	 */
+	static long keyOf(@NotNull String nodeId) {
+		long hash = 0xcbf29ce484222325L; // 64-bit FNV-1a
+		for (byte b : nodeId.getBytes(StandardCharsets.UTF_8)) hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+		return hash == 0 ? 1 : hash;
+	}
+
+	/**
+	 * Mark the writer of the ring as alive
+	 */
+	void heartbeat() {
+		LONGS.setRelease(this.buffer, HEARTBEAT_OFFSET, System.currentTimeMillis());
+	}
+
+	/**
+	 * Get the time the writer of the ring was last alive at
+	 *
+	 * @return the epoch millis of the last heartbeat
+	 */
+	long getHeartbeat() {
+		return (long) LONGS.getAcquire(this.buffer, HEARTBEAT_OFFSET);
+	}
+
+	Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Delete the ring of this process and release the lock of the writer, the mapped memory stays valid
+	 *
+	 * @throws IOException if the files can not be deleted
+	 */
+	void delete() throws IOException {
+		if (this.lockChannel == null) throw new IllegalStateException("Only the writer can delete a ring");
+
+		try {
+			Files.deleteIfExists(this.path);
+			Files.deleteIfExists(lockPathOf(this.path));
+		} finally {
+			this.lockChannel.close();
+			LOCKED.remove(lockKeyOf(this.path));
+		}
+	}
+
+	private boolean isMeantFor(int offset, int nodeIdLength, byte[] nodeId) {
+		if (nodeIdLength != nodeId.length) return false;
+		for (int i = 0; i < nodeIdLength; i++) if (this.buffer.get(offset + i) != nodeId[i]) return false;
+		return true;
+	}
+
+	private static long align(long length) {
+		return (length + 7) & ~7L;
+	}
+}
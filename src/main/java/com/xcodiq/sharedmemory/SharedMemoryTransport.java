@@ -0,0 +1,378 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xcodiq.sharedmemory;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Exchanges messages with the instances on the same host through shared memory instead of redis. Every instance
+ * writes the messages it sends to its own ring buffer, a memory-mapped file in a shared directory ({@code /dev/shm}),
+ * and reads the rings of all other instances sharing its record prefix. Instances find each other by the files in the
+ * directory, and tell they are alive by a heartbeat in their ring.
+ * <p>
+ * Only messages meant for a single instance are sent this way, a message for an instance that is not on this host,
+ * too large for the ring, or that does not fit until the slowest reader catches up is not sent and has to be published
+ * on redis instead.
+ *
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class SharedMemoryTransport {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SharedMemoryTransport.class);
+
+	private static final String READER_NAME = "RPC-SHM-READER-%d";
+	private static final AtomicInteger READER_COUNTER = new AtomicInteger();
+
+	private static final long HEARTBEAT_INTERVAL = TimeUnit.SECONDS.toMillis(1); // the interval peers are discovered at
+	private static final long PEER_TIMEOUT = TimeUnit.SECONDS.toMillis(5); // a peer without a heartbeat this long is gone
+	private static final long READY_DELAY = 2 * HEARTBEAT_INTERVAL; // the time a peer needs to discover a new ring
+	private static final long STALE_TIMEOUT = TimeUnit.MINUTES.toMillis(1); // the ring of a peer gone this long is deleted
+
+	private static final int SPIN_ITERATIONS = 100; // the idle iterations the reader spins before it backs off
+	private static final int YIELD_ITERATIONS = 10; // the idle iterations the reader yields before it parks
+	private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50); // the time the reader first parks once idle
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1); // the longest time the reader parks once idle
+
+	private static final int UNCLAIMED = -1; // the reader slot of a peer that has not been claimed yet
+	private static final int NO_SLOT = -2; // the reader slot of a peer when all slots have been claimed
+
+	private final String nodeId;
+	private final byte[] nodeIdBytes;
+	private final long nodeKey;
+	private final Path directory;
+	private final String filePrefix;
+	private final SharedMemoryRing ring;
+	private final Executor executor;
+	private final BiConsumer<String, byte[]> receiver;
+	private final long createdAt = System.currentTimeMillis();
+
+	private final Map<String, Peer> peers = new ConcurrentHashMap<>(); // the live instances on this host, by node id
+	private final Queue<Peer> removedPeers = new ConcurrentLinkedQueue<>(); // the peers whose reader slot is to be released
+	private final Thread reader;
+	private final ScheduledFuture<?> discoveryFuture;
+	private volatile long position; // the position this instance has read its own ring up to
+	private volatile boolean running = true;
+
+	private SharedMemoryTransport(String nodeId, Path directory, String filePrefix, SharedMemoryRing ring,
+	                              ScheduledExecutorService scheduler, Executor executor, BiConsumer<String, byte[]> receiver) {
+		this.nodeId = nodeId;
+		this.nodeIdBytes = nodeId.getBytes(StandardCharsets.UTF_8);
+		this.nodeKey = SharedMemoryRing.keyOf(nodeId);
+		this.directory = directory;
+		this.filePrefix = filePrefix;
+		this.ring = ring;
+		this.executor = executor;
+		this.receiver = receiver;
+		this.position = ring.getWritePosition();
+
+		this.reader = new Thread(this::readLoop, String.format(READER_NAME, READER_COUNTER.getAndIncrement()));
+		this.reader.setDaemon(true);
+		this.reader.start();
+
+		this.discoveryFuture = scheduler.scheduleAtFixedRate(this::discover, 0, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Open the shared memory transport of an instance, creating its ring and starting to read the rings of its peers
+	 *
+	 * @param nodeId       the node id of the instance
+	 * @param recordPrefix the record prefix shared by the peers
+	 * @param directory    the directory of the rings, a memory-backed file system such as {@code /dev/shm}
+	 * @param ringSize     the size of the ring of the instance in bytes, a power of two
+	 * @param scheduler    the scheduler to discover peers on
+	 * @param executor     the executor to call the receiver on, so a slow receiver does not hold up the reader
+	 * @param receiver     called with the channel and the message of every message sent to the instance
+	 * @return the transport, or {@code null} if the directory is not available
+	 */
+	public static @Nullable SharedMemoryTransport open(@NotNull String nodeId, @NotNull String recordPrefix, @NotNull Path directory,
+	                                                   int ringSize, @NotNull ScheduledExecutorService scheduler,
+	                                                   @NotNull Executor executor, @NotNull BiConsumer<String, byte[]> receiver) {
+		if (!Files.isDirectory(directory) || !Files.isWritable(directory)) {
+			LOG.warn("Shared memory directory '{}' is not available, all messages are sent through redis", directory);
+			return null;
+		}
+
+		final String filePrefix = "rpc." + recordPrefix + ".";
+		try {
+			final SharedMemoryRing ring = SharedMemoryRing.create(directory.resolve(filePrefix + nodeId + ".ring"), ringSize);
+			return new SharedMemoryTransport(nodeId, directory, filePrefix, ring, scheduler, executor, receiver);
+		} catch (IOException exception) {
+			LOG.error("Unable to create the shared memory ring in '" + directory + "', all messages are sent through redis", exception);
+			return null;
+		}
+	}
+
+	/**
+	 * Send a message to an instance on this host
+	 *
+	 * @param nodeId  the node id of the instance to send the message to
+	 * @param channel the channel of the message
+	 * @param message the message
+	 * @return {@code true} if the message has been sent, {@code false} if the instance is not on this host, the message
+	 * is too large or a reader has fallen behind too far, and the message has to be published on redis instead
+	 */
+	public boolean send(@NotNull String nodeId, @NotNull String channel, byte @NotNull [] message) {
+		if (!this.running || !this.isLocal(nodeId)) return false;
+		return this.ring.write(nodeId.getBytes(StandardCharsets.UTF_8), channel.getBytes(StandardCharsets.UTF_8), message,
+				this.getSlowestReadPosition());
+	}
+
+	/**
+	 * Check if an instance is on this host, and alive
+	 *
+	 * @param nodeId the node id of the instance
+	 * @return {@code true} if messages can be sent to the instance through shared memory, {@code false} otherwise
+	 */
+	public boolean isLocal(@NotNull String nodeId) {
+		if (this.nodeId.equals(nodeId)) return true;
+
+		// A peer only reads the messages written after it discovered this ring, wait until it surely has
+		final Peer peer = this.peers.get(nodeId);
+		if (peer == null) return false;
+		final long now = System.currentTimeMillis();
+		return now - Math.max(this.createdAt, peer.discoveredAt) >= READY_DELAY && now - peer.ring.getHeartbeat() < PEER_TIMEOUT
+				&& peer.ring.getReadPosition(this.nodeKey) >= 0;
+	}
+
+	/**
+	 * Get the position the slowest reader has read the ring of this instance up to, the live peers that have not
+	 * claimed a reader slot are not sent any messages and do not count
+	 *
+	 * @return the position of the slowest reader
+	 */
+	private long getSlowestReadPosition() {
+		long slowest = this.position;
+		final long now = System.currentTimeMillis();
+		for (Peer peer : this.peers.values()) {
+			if (now - peer.ring.getHeartbeat() >= PEER_TIMEOUT) continue;
+
+			final long readPosition = peer.ring.getReadPosition(this.nodeKey);
+			if (readPosition >= 0) slowest = Math.min(slowest, readPosition);
+		}
+		return slowest;
+	}
+
+	/**
+	 * Get the node ids of the other instances on this host
+	 *
+	 * @return the node ids of the local peers
+	 */
+	public @NotNull Set<String> getLocalPeers() {
+		return Set.copyOf(this.peers.keySet());
+	}
+
+	/**
+	 * Stop reading and delete the ring of this instance, its peers stop sending to it
+	 */
+	public void shutdown() {
+		if (!this.running) return;
+		this.running = false;
+
+		this.discoveryFuture.cancel(false);
+		LockSupport.unpark(this.reader);
+		try {
+			this.ring.delete();
+		} catch (IOException exception) {
+			LOG.error("Unable to delete the shared memory ring: " + this.ring.getPath(), exception);
+		}
+	}
+
+	/**
+	 * Read the messages sent to this instance from all rings, spinning briefly while messages arrive and parking once idle
+	 */
+	private void readLoop() {
+		int idle = 0;
+		long parkNanos = MIN_PARK_NANOS;
+
+		while (this.running) {
+			boolean received = false;
+
+			// Release the reader slots of the peers that are gone, the reader thread is the only one using the slots
+			Peer removedPeer;
+			while ((removedPeer = this.removedPeers.poll()) != null) {
+				if (removedPeer.slot >= 0) this.ring.releaseReaderSlot(removedPeer.slot);
+				removedPeer.slot = NO_SLOT;
+			}
+
+			// Read the messages this instance sent to itself, then those of its peers
+			final long nextPosition = this.read(this.ring, this.position);
+			if (nextPosition != this.position) {
+				this.position = nextPosition;
+				received = true;
+			}
+
+			for (Peer peer : this.peers.values()) {
+				if (peer.slot == UNCLAIMED && !peer.removed) peer.slot = this.claimReaderSlot(peer);
+
+				final long nextPeerPosition = this.read(peer.ring, peer.position);
+				if (nextPeerPosition == peer.position) continue;
+
+				peer.position = nextPeerPosition;
+				if (peer.slot >= 0) this.ring.setReadPosition(peer.slot, nextPeerPosition);
+				received = true;
+			}
+
+			if (received) {
+				idle = 0;
+				parkNanos = MIN_PARK_NANOS;
+			} else if (++idle < SPIN_ITERATIONS) Thread.onSpinWait();
+			else if (idle < SPIN_ITERATIONS + YIELD_ITERATIONS) Thread.yield();
+			else {
+				// Park a little longer every time nothing arrived, so an idle instance barely wakes up
+				LockSupport.parkNanos(parkNanos);
+				parkNanos = Math.min(MAX_PARK_NANOS, parkNanos * 2);
+			}
+		}
+	}
+
+	private int claimReaderSlot(Peer peer) {
+		final int slot = this.ring.claimReaderSlot(peer.key, peer.position);
+		if (slot >= 0) return slot;
+
+		LOG.warn("No shared memory reader slot left for peer '{}', messages from it are sent through redis", peer.nodeId);
+		return NO_SLOT;
+	}
+
+	private long read(SharedMemoryRing ring, long position) {
+		return ring.read(position, this.nodeIdBytes, (channel, message) -> {
+			try {
+				this.executor.execute(() -> this.receive(channel, message));
+			} catch (RejectedExecutionException exception) {
+				// The executor has been shut down, receive the message right away instead
+				this.receive(channel, message);
+			}
+		});
+	}
+
+	private void receive(String channel, byte[] message) {
+		try {
+			this.receiver.accept(channel, message);
+		} catch (Exception exception) {
+			LOG.error("An error occurred while receiving a shared memory message on: " + channel, exception);
+		}
+	}
+
+	/**
+	 * Mark this instance as alive, and look for the rings of new and gone peers
+	 */
+	private void discover() {
+		try {
+			this.ring.heartbeat();
+
+			final long now = System.currentTimeMillis();
+			final Set<String> found = new HashSet<>();
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, this.filePrefix + "*.ring")) {
+				for (Path file : files) {
+					final String fileName = file.getFileName().toString();
+					final String peerId = fileName.substring(this.filePrefix.length(), fileName.length() - ".ring".length());
+					if (peerId.equals(this.nodeId) || peerId.indexOf('.') >= 0) continue;
+
+					// Forget peers that stopped
+					final Peer peer = this.peers.get(peerId);
+					if (peer != null) {
+						if (now - peer.ring.getHeartbeat() < PEER_TIMEOUT) found.add(peerId);
+						continue;
+					}
+
+					// Only map the ring of a new peer once it is alive, and delete it once its peer has verifiably exited
+					final long heartbeat;
+					try {
+						heartbeat = SharedMemoryRing.readHeartbeat(file);
+					} catch (AccessDeniedException exception) {
+						continue; // the ring of an instance run by another user, it can not be read
+					}
+					if (heartbeat < 0) continue;
+					if (now - heartbeat >= PEER_TIMEOUT) {
+						if (now - heartbeat >= STALE_TIMEOUT && SharedMemoryRing.deleteIfAbandoned(file)) {
+							LOG.debug("Deleted the shared memory ring of gone peer '{}'", peerId);
+						}
+						continue;
+					}
+
+					final SharedMemoryRing peerRing = SharedMemoryRing.open(file);
+					if (peerRing == null) continue;
+					this.peers.put(peerId, new Peer(peerId, peerRing));
+					found.add(peerId);
+				}
+			}
+
+			// Peers that deleted their ring have shut down
+			this.peers.values().removeIf(peer -> {
+				if (found.contains(peer.nodeId)) return false;
+
+				peer.removed = true;
+				this.removedPeers.add(peer);
+				return true;
+			});
+		} catch (Exception exception) {
+			// Never let an exception cancel the discovery
+			LOG.error("An error occurred while discovering shared memory peers", exception);
+		}
+	}
+
+	private static final class Peer {
+		private final String nodeId;
+		private final long key;
+		private final SharedMemoryRing ring;
+		private final long discoveredAt = System.currentTimeMillis();
+		private volatile boolean removed; // set once the peer is gone, its reader slot is released by the reader thread
+
+		/* only used by the reader thread */
+		private long position; // the position the reader continues reading from
+		private int slot = UNCLAIMED; // the reader slot publishing the position in the ring of this instance
+
+		private Peer(String nodeId, SharedMemoryRing ring) {
+			this.nodeId = nodeId;
+			this.key = SharedMemoryRing.keyOf(nodeId);
+			this.ring = ring;
+			this.position = ring.getWritePosition();
+		}
+	}
+}
@@ -29,6 +29,7 @@ import com.xcodiq.rpc.RPC;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -45,6 +46,8 @@ public class ExpiringList<E> extends HashSet<E> {
 	private final HashMap<E, Instant> addedAt = new HashMap<>();
 	private Function<E, Boolean> purgeFunction;
 
+	private ScheduledExecutorService scheduler; // the scheduler expiring the entries, null for a new one per entry
+
 	private double delay = 5;
 	private TimeUnit timeUnit = TimeUnit.SECONDS;
 
@@ -117,9 +120,11 @@ public class ExpiringList<E> extends HashSet<E> {
 			refreshFutures.remove(entry);
 		}
 
-		ScheduledFuture<?> scheduledFuture = RPC.getThreadPoolExecutor().schedule(() -> {
-			this.remove(entry);
-			purgeFunction.apply(entry);
+		ScheduledFuture<?> scheduledFuture = this.getScheduler().schedule(() -> {
+			synchronized (this) {
+				this.remove(entry);
+			}
+			if (purgeFunction != null) purgeFunction.apply(entry);
 		}, (long) delay, timeUnit);
 
 		refreshFutures.put(entry, scheduledFuture);
@@ -139,6 +144,15 @@ public class ExpiringList<E> extends HashSet<E> {
 		return timeUnit.convert(expiresAt.minusMillis(System.currentTimeMillis()).toEpochMilli(), TimeUnit.MILLISECONDS);
 	}
 
+	public ScheduledExecutorService getScheduler() {
+		return scheduler == null ? RPC.getThreadPoolExecutor() : scheduler;
+	}
+
+	public ExpiringList<E> setScheduler(ScheduledExecutorService scheduler) {
+		this.scheduler = scheduler;
+		return this;
+	}
+
 	public double getDelay() {
 		return delay;
 	}
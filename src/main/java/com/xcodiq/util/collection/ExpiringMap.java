@@ -28,6 +28,7 @@ import com.xcodiq.rpc.RPC;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -46,6 +47,8 @@ public class ExpiringMap<K, V> extends HashMap<K, V> {
 
 	private BiFunction<K, V, Boolean> purgeFunction;
 
+	private ScheduledExecutorService scheduler; // the scheduler expiring the entries, null for a new one per entry
+
 	private double delay = 5;
 	private TimeUnit timeUnit = TimeUnit.SECONDS;
 
@@ -155,9 +158,11 @@ public class ExpiringMap<K, V> extends HashMap<K, V> {
 			this.refreshFutures.remove(key);
 		}
 
-		ScheduledFuture<?> scheduledFuture = RPC.getThreadPoolExecutor().schedule(() -> {
-			this.remove(key);
-			this.purgeFunction.apply(key, value);
+		ScheduledFuture<?> scheduledFuture = this.getScheduler().schedule(() -> {
+			synchronized (this) {
+				this.remove(key);
+			}
+			if (this.purgeFunction != null) this.purgeFunction.apply(key, value);
 		}, (long) delay, timeUnit);
 
 		this.refreshFutures.put(key, scheduledFuture);
@@ -181,6 +186,15 @@ public class ExpiringMap<K, V> extends HashMap<K, V> {
 		return timeUnit.convert(expiresAt.minusMillis(System.currentTimeMillis()).toEpochMilli(), TimeUnit.MILLISECONDS);
 	}
 
+	public ScheduledExecutorService getScheduler() {
+		return scheduler == null ? RPC.getThreadPoolExecutor() : scheduler;
+	}
+
+	public ExpiringMap<K, V> setScheduler(ScheduledExecutorService scheduler) {
+		this.scheduler = scheduler;
+		return this;
+	}
+
 	public double getDelay() {
 		return delay;
 	}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.util.pool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable objects, kept in a single bounded queue shared between all threads. Objects are often taken on one
+ * thread and returned on another (e.g. taken on the event loop and returned on a handler or virtual thread), so there is
+ * no per-thread cache that would only be refilled by threads that never take from it. Objects beyond the capacity are dropped.
+ *
+ * @param <T> the type of the pooled objects
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0
+ */
+public final class ObjectPool<T> {
+
+	private final Supplier<T> factory; // creates a new object when the pool is empty
+	private final ArrayBlockingQueue<T> shared;
+
+	/**
+	 * Constructs a new object pool
+	 *
+	 * @param factory  the factory to create a new object with when the pool is empty
+	 * @param capacity the maximum amount of objects kept in the pool
+	 */
+	public ObjectPool(@NotNull Supplier<T> factory, int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("The capacity of the pool must be at least 1");
+
+		this.factory = factory;
+		this.shared = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Take an object from the pool, or create a new one if the pool is empty
+	 *
+	 * @return the object
+	 */
+	public @NotNull T acquire() {
+		final T object = this.shared.poll();
+		return object != null ? object : this.factory.get();
+	}
+
+	/**
+	 * Return an object to the pool, it must not be used after this
+	 *
+	 * @param object the object to return
+	 */
+	public void release(@NotNull T object) {
+		this.shared.offer(object);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.serialization;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0-test
+ */
+final class ChunkAssemblerTest {
+
+	private static final int CHUNK_HEADER_SIZE = 29;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+	private final ChunkAssembler assembler = new ChunkAssembler(1024, this.scheduler, 1, TimeUnit.MINUTES);
+
+	@AfterEach
+	void shutdown() {
+		this.scheduler.shutdownNow();
+	}
+
+	@Test
+	void reassemblesASplitMessage() {
+		for (int length : new int[]{1, 99, 100, 101, 1000}) {
+			final byte[] message = message(length);
+			final List<byte[]> chunks = ChunkAssembler.split(message, 100);
+			assertEquals((length + 99) / 100, chunks.size());
+			assertArrayEquals(message, this.acceptAll(chunks), "length " + length);
+		}
+	}
+
+	@Test
+	void reassemblesInterleavedTransfers() {
+		final byte[] first = message(250), second = message(350);
+		final List<byte[]> firstChunks = ChunkAssembler.split(first, 100), secondChunks = ChunkAssembler.split(second, 100);
+
+		for (int i = 0; i < 2; i++) {
+			assertNull(this.assembler.accept(firstChunks.get(i)));
+			assertNull(this.assembler.accept(secondChunks.get(i)));
+		}
+		assertArrayEquals(first, this.assembler.accept(firstChunks.get(2)));
+		assertNull(this.assembler.accept(secondChunks.get(2)));
+		assertArrayEquals(second, this.assembler.accept(secondChunks.get(3)));
+	}
+
+	@Test
+	void tellsChunksFromOtherMessages() {
+		assertTrue(ChunkAssembler.isChunk(ChunkAssembler.split(message(10), 4).get(0)));
+		assertFalse(ChunkAssembler.isChunk("{\"packetId\": \"00000000-0000-0000-0000-000000000000\"}".getBytes()));
+		assertFalse(ChunkAssembler.isChunk(new byte[]{1, 2, 3}));
+	}
+
+	@Test
+	void dropsATransferWithATruncatedChunk() {
+		final List<byte[]> chunks = ChunkAssembler.split(message(300), 100);
+		assertNull(this.assembler.accept(chunks.get(0)));
+		assertNull(this.assembler.accept(Arrays.copyOf(chunks.get(1), chunks.get(1).length - 1)));
+
+		// The rest of the transfer is ignored, and its buffer is released for the next one
+		assertNull(this.assembler.accept(chunks.get(2)));
+		final byte[] message = message(1024);
+		assertArrayEquals(message, this.acceptAll(ChunkAssembler.split(message, 512)));
+	}
+
+	@Test
+	void dropsATransferWithChunksOutOfOrder() {
+		final List<byte[]> chunks = ChunkAssembler.split(message(300), 100);
+		assertNull(this.assembler.accept(chunks.get(0)));
+		assertNull(this.assembler.accept(chunks.get(2)));
+		assertNull(this.assembler.accept(chunks.get(1)));
+	}
+
+	@Test
+	void dropsAFirstChunkWithAnInvalidHeader() {
+		// A length that does not fit in the chunks, a count of zero and a negative length
+		for (int[] header : new int[][]{{2, 1000}, {0, 100}, {1, -1}}) {
+			final byte[] chunk = ChunkAssembler.split(message(100), 100).get(0);
+			ByteBuffer.wrap(chunk).putInt(21, header[0]).putInt(25, header[1]);
+			assertNull(this.assembler.accept(chunk), Arrays.toString(header));
+		}
+
+		final byte[] headerOnly = Arrays.copyOf(ChunkAssembler.split(message(100), 100).get(0), CHUNK_HEADER_SIZE);
+		assertNull(this.assembler.accept(headerOnly));
+	}
+
+	@Test
+	void dropsATransferLargerThanTheBuffers() {
+		assertNull(this.assembler.accept(ChunkAssembler.split(message(1025), 512).get(0)));
+	}
+
+	private byte[] acceptAll(List<byte[]> chunks) {
+		byte[] message = null;
+		for (byte[] chunk : chunks) {
+			assertNull(message, "the message was complete before its last chunk");
+			message = this.assembler.accept(chunk);
+		}
+		return message;
+	}
+
+	private static byte[] message(int length) {
+		final byte[] message = new byte[length];
+		new Random(length).nextBytes(message);
+		return message;
+	}
+}
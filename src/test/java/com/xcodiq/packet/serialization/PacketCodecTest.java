@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.serialization;
+
+import com.google.gson.JsonSyntaxException;
+import com.xcodiq.packet.type.BinaryPacket;
+import com.xcodiq.packet.type.StringPacket;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0-test
+ */
+final class PacketCodecTest {
+
+	private final PacketCodec codec = new PacketCodec();
+
+	@Test
+	void encodesPacketsWithoutPayloadAsPlainJson() {
+		final byte[] message = this.codec.encode(new StringPacket("hello"));
+		assertEquals('{', message[0]);
+
+		final StringPacket decoded = this.codec.decode(message);
+		assertEquals("hello", decoded.getPayload());
+	}
+
+	@Test
+	void framesTheBinaryPayloadBehindTheJson() {
+		final byte[] bytes = {1, -2, 3, Byte.MAX_VALUE, Byte.MIN_VALUE};
+		final byte[] message = this.codec.encode(new BinaryPacket(bytes));
+		assertEquals(0, message[0]);
+
+		final BinaryPacket decoded = this.codec.decode(message);
+		assertArrayEquals(bytes, decoded.toByteArray());
+	}
+
+	@Test
+	void framesAnEmptyBinaryPayload() {
+		final BinaryPacket decoded = this.codec.decode(this.codec.encode(new BinaryPacket(new byte[0])));
+		assertArrayEquals(new byte[0], decoded.toByteArray());
+	}
+
+	@Test
+	void rejectsAFrameLongerThanTheMessage() {
+		final byte[] message = this.codec.encode(new BinaryPacket(new byte[]{1, 2, 3}));
+		ByteBuffer.wrap(message).putInt(1, message.length);
+
+		assertThrows(JsonSyntaxException.class, () -> this.codec.decode(message));
+	}
+
+	@Test
+	void rejectsANegativeFrameLength() {
+		final byte[] message = this.codec.encode(new BinaryPacket(new byte[]{1, 2, 3}));
+		ByteBuffer.wrap(message).putInt(1, -1);
+
+		assertThrows(JsonSyntaxException.class, () -> this.codec.decode(message));
+	}
+
+	@Test
+	void rejectsATruncatedFrame() {
+		final byte[] message = this.codec.encode(new BinaryPacket(new byte[]{1, 2, 3}));
+		final byte[] truncated = Arrays.copyOf(message, 8);
+
+		assertThrows(JsonSyntaxException.class, () -> this.codec.decode(truncated));
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.sync;
+
+import com.google.gson.JsonParseException;
+import com.xcodiq.packet.PacketStatus;
+import com.xcodiq.packet.RedisPacket;
+import com.xcodiq.packet.serialization.PacketCodec;
+import com.xcodiq.packet.type.DeltaMapPacket;
+import com.xcodiq.packet.type.LongPacket;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0-test
+ */
+final class MapSyncTest {
+
+	private static final String CHANNEL = "scores";
+
+	private final PacketCodec codec = new PacketCodec();
+	private final MapSync<String, Integer> sync = new MapSync<>();
+	private final MapReplica<String, Integer> replica = new MapReplica<>();
+
+	@Test
+	void sendsASnapshotFirstAndOnlyTheChangesAfterwards() {
+		final Map<String, Integer> state = new HashMap<>(Map.of("a", 1, "b", 2, "c", 3));
+		final DeltaMapPacket<String, Integer> snapshot = this.sync.diff(CHANNEL, state);
+		assertTrue(snapshot.isSnapshot());
+		this.sync.acknowledge(CHANNEL, this.replica.apply(snapshot));
+
+		state.put("a", 10);
+		state.remove("b");
+		state.put("d", 4);
+		final DeltaMapPacket<String, Integer> delta = this.sync.diff(CHANNEL, state);
+		assertFalse(delta.isSnapshot());
+		assertEquals(Map.of("a", 10, "d", 4), delta.getChanged());
+		assertEquals(Set.of("b"), delta.getRemoved());
+
+		final LongPacket reply = this.replica.apply(delta);
+		assertEquals(PacketStatus.OK, reply.getPacketStatus());
+		assertEquals(delta.getVersion(), reply.getPayload());
+		assertEquals(state, this.replica.getState(CHANNEL));
+	}
+
+	@Test
+	void coversAnUnacknowledgedPacketWithTheNextOne() {
+		final Map<String, Integer> state = new HashMap<>(Map.of("a", 1));
+		this.sync.acknowledge(CHANNEL, this.replica.apply(this.sync.diff(CHANNEL, state)));
+
+		// The first change is lost, the second one is sent against the same acknowledged version
+		state.put("b", 2);
+		this.sync.diff(CHANNEL, state);
+		state.put("c", 3);
+		this.sync.acknowledge(CHANNEL, this.replica.apply(this.sync.diff(CHANNEL, state)));
+
+		assertEquals(state, this.replica.getState(CHANNEL));
+	}
+
+	@Test
+	void resyncsWithASnapshotWhenTheReplicaIsOutOfSync() {
+		final Map<String, Integer> state = new HashMap<>(Map.of("a", 1));
+		this.sync.acknowledge(CHANNEL, this.replica.apply(this.sync.diff(CHANNEL, state)));
+
+		// The replica forgets the channel, e.g. after a restart, and can not apply the next changes
+		this.replica.remove(CHANNEL);
+		state.put("b", 2);
+		final LongPacket reply = this.replica.apply(this.sync.diff(CHANNEL, state));
+		assertEquals(PacketStatus.PRECONDITION_FAILED, reply.getPacketStatus());
+		this.sync.acknowledge(CHANNEL, reply);
+
+		final DeltaMapPacket<String, Integer> snapshot = this.sync.diff(CHANNEL, state);
+		assertTrue(snapshot.isSnapshot());
+		this.replica.apply(snapshot);
+		assertEquals(state, this.replica.getState(CHANNEL));
+	}
+
+	@Test
+	void ignoresChangesOlderThanTheReplica() {
+		final Map<String, Integer> state = new HashMap<>(Map.of("a", 1));
+		this.sync.acknowledge(CHANNEL, this.replica.apply(this.sync.diff(CHANNEL, state)));
+
+		state.put("a", 2);
+		final DeltaMapPacket<String, Integer> older = this.sync.diff(CHANNEL, state);
+		state.put("a", 3);
+		this.replica.apply(this.sync.diff(CHANNEL, state));
+
+		assertEquals(older.getVersion() + 1, this.replica.apply(older).getPayload());
+		assertEquals(Map.of("a", 3), this.replica.getState(CHANNEL));
+	}
+
+	@Test
+	void removesNonStringKeysAfterARoundTrip() {
+		final MapSync<Integer, String> sync = new MapSync<>();
+		final MapReplica<Object, Object> replica = new MapReplica<>();
+		final Map<Integer, String> state = new HashMap<>(Map.of(1, "one", 2, "two"));
+
+		sync.acknowledge(CHANNEL, this.roundTrip(replica.apply(this.roundTrip(sync.diff(CHANNEL, state)))));
+		state.remove(1);
+		replica.apply(this.roundTrip(sync.diff(CHANNEL, state)));
+
+		assertEquals(1, replica.getState(CHANNEL).size());
+		assertEquals("two", replica.getState(CHANNEL).values().iterator().next());
+	}
+
+	@Test
+	void rejectsATruncatedPacket() {
+		final byte[] message = this.codec.encode(this.sync.diff(CHANNEL, Map.of("a", 1)));
+		final byte[] truncated = Arrays.copyOf(message, message.length / 2);
+
+		assertThrows(JsonParseException.class, () -> this.codec.decode(truncated));
+	}
+
+	private <T extends RedisPacket> T roundTrip(RedisPacket packet) {
+		return this.codec.decode(this.codec.encode(packet));
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0-test
+ */
+final class PackedArraysTest {
+
+	private static final int[] INTS = {0, 1, -1, 63, -64, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+	private static final long[] LONGS = {0, 1, -1, 1L << 40, -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE};
+
+	@Test
+	void roundTripsIntsInEveryEncoding() {
+		for (ArrayEncoding encoding : ArrayEncoding.values()) {
+			assertArrayEquals(INTS, PackedArrays.decodeInts(PackedArrays.encodeInts(INTS, encoding), encoding), encoding.name());
+			assertArrayEquals(new int[0], PackedArrays.decodeInts(PackedArrays.encodeInts(new int[0], encoding), encoding), encoding.name());
+		}
+	}
+
+	@Test
+	void roundTripsLongsInEveryEncoding() {
+		for (ArrayEncoding encoding : ArrayEncoding.values()) {
+			assertArrayEquals(LONGS, PackedArrays.decodeLongs(PackedArrays.encodeLongs(LONGS, encoding), encoding), encoding.name());
+		}
+	}
+
+	@Test
+	void roundTripsDoubles() {
+		final double[] values = {0, -0.0, 1.5, Double.NaN, Double.MAX_VALUE, Double.NEGATIVE_INFINITY};
+		assertArrayEquals(values, PackedArrays.decodeDoubles(PackedArrays.encodeDoubles(values)));
+	}
+
+	@Test
+	void rejectsALengthLargerThanThePayload() {
+		for (ArrayEncoding encoding : ArrayEncoding.values()) {
+			final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 3).putInt(Integer.MAX_VALUE).flip();
+			assertThrows(IllegalArgumentException.class, () -> PackedArrays.decodeInts(buffer, encoding), encoding.name());
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 8).putInt(2).flip();
+		assertThrows(IllegalArgumentException.class, () -> PackedArrays.decodeDoubles(buffer));
+	}
+
+	@Test
+	void rejectsANegativeLength() {
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).putInt(-1).flip();
+		assertThrows(IllegalArgumentException.class, () -> PackedArrays.decodeLongs(buffer, ArrayEncoding.PACKED));
+	}
+
+	@Test
+	void rejectsATruncatedVarint() {
+		final ByteBuffer encoded = PackedArrays.encodeInts(new int[]{Integer.MAX_VALUE}, ArrayEncoding.VARINT);
+		final ByteBuffer truncated = encoded.limit(encoded.limit() - 1);
+		assertThrows(BufferUnderflowException.class, () -> PackedArrays.decodeInts(truncated, ArrayEncoding.VARINT));
+	}
+
+	@Test
+	void rejectsAVarintLongerThanALong() {
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 11).putInt(1);
+		for (int i = 0; i < 10; i++) buffer.put((byte) 0x80);
+		buffer.put((byte) 0).flip();
+		assertThrows(IllegalArgumentException.class, () -> PackedArrays.decodeLongs(buffer, ArrayEncoding.VARINT));
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 - Elmar (Cody) Lynn, xCodiq
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xcodiq.packet.type;
+
+import com.xcodiq.packet.serialization.PacketCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author xCodiq - Elmar (Cody) Lynn
+ * @wesbite https://xcodiq.com
+ * @since 1.0-test
+ */
+final class TablePacketTest {
+
+	private final PacketCodec codec = new PacketCodec();
+
+	@Test
+	void roundTripsEveryColumnType() {
+		final String[] names = {"alpha", null, "beta", "gamma", "", "delta"};
+		final TablePacket table = TablePacket.builder()
+				.intColumn("id", new int[]{1, -2, 3, Integer.MAX_VALUE, Integer.MIN_VALUE, 0})
+				.longColumn("time", new long[]{1L << 40, -1, 0, Long.MAX_VALUE, Long.MIN_VALUE, 42})
+				.doubleColumn("score", new double[]{0.5, -1, Double.NaN, 0, 1e300, -0.0})
+				.booleanColumn("active", new boolean[]{true, false, true, true, false, true})
+				.stringColumn("name", names)
+				.build();
+
+		final TablePacket decoded = this.codec.decode(this.codec.encode(table));
+		assertEquals(6, decoded.getRowCount());
+		assertEquals(5, decoded.getColumnCount());
+		assertEquals(ColumnType.BOOLEAN, decoded.getColumnType(decoded.getColumnIndex("active")));
+		assertArrayEquals(table.getIntColumn(0), decoded.getIntColumn(0));
+		assertArrayEquals(table.getLongColumn(1), decoded.getLongColumn(1));
+		assertArrayEquals(table.getDoubleColumn(2), decoded.getDoubleColumn(2));
+		assertArrayEquals(table.getBooleanColumn(3), decoded.getBooleanColumn(3));
+		assertArrayEquals(names, decoded.getStringColumn(4));
+	}
+
+	@Test
+	void roundTripsADictionaryEncodedColumn() {
+		final TablePacket.Builder builder = TablePacket.builder().column("region", ColumnType.STRING);
+		for (int i = 0; i < 64; i++) builder.row(i % 3 == 0 ? "eu" : i % 3 == 1 ? "us" : null);
+		final TablePacket table = builder.build();
+
+		final TablePacket decoded = this.codec.decode(this.codec.encode(table));
+		assertArrayEquals(table.getStringColumn(0), decoded.getStringColumn(0));
+	}
+
+	@Test
+	void roundTripsAnEmptyTable() {
+		final TablePacket decoded = this.codec.decode(this.codec.encode(TablePacket.builder().build()));
+		assertEquals(0, decoded.getRowCount());
+		assertEquals(0, decoded.getColumnCount());
+	}
+
+	@Test
+	void rejectsMoreRowsThanThePayloadHolds() {
+		final TablePacket table = TablePacket.builder().intColumn("id", new int[]{1, 2, 3}).build();
+		final String json = this.codec.serialize(table).replaceFirst("\"rowCount\": 3", "\"rowCount\": 1000000000");
+
+		assertThrows(IllegalArgumentException.class, () -> this.codec.deserialize(json, table.writePayload()));
+	}
+
+	@Test
+	void rejectsASchemaWithoutATypeForEveryColumn() {
+		final TablePacket table = TablePacket.builder().intColumn("id", new int[]{1}).longColumn("time", new long[]{2}).build();
+		final String json = this.codec.serialize(table).replaceFirst("\"LONG\"", "").replaceFirst("\"INT\",", "\"INT\"");
+
+		assertThrows(IllegalArgumentException.class, () -> this.codec.deserialize(json, table.writePayload()));
+	}
+
+	@Test
+	void rejectsADictionaryIndexOutOfBounds() {
+		// dictionary encoded, one entry "a", and a single row referring to entry 5
+		final ByteBuffer payload = ByteBuffer.wrap(new byte[]{1, 1, 2, 'a', 5});
+		assertThrows(IllegalArgumentException.class, () -> TableColumn.read(ColumnType.STRING, 1, payload));
+	}
+
+	@Test
+	void rejectsAStringLongerThanThePayload() {
+		// not dictionary encoded, a single row of 100 bytes with only one present
+		final ByteBuffer payload = ByteBuffer.wrap(new byte[]{0, 101, 'a'});
+		assertThrows(IllegalArgumentException.class, () -> TableColumn.read(ColumnType.STRING, 1, payload));
+	}
+
+	@Test
+	void rejectsADictionaryLargerThanThePayload() {
+		final ByteBuffer payload = ByteBuffer.wrap(new byte[]{1, (byte) 0xFF, (byte) 0xFF, 0x7F, 2, 'a'});
+		assertThrows(IllegalArgumentException.class, () -> TableColumn.read(ColumnType.STRING, 1, payload));
+	}
+}